@@ -0,0 +1,28 @@
+package com.ericsson.de.scenarios.api;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+/**
+ * Provide access to some internal functionality located in api to impl package
+ *
+ * @see com.ericsson.de.scenarios.impl.Bridge
+ */
+public final class ApiBridge {
+    private ApiBridge() {
+    }
+
+    /**
+     * @see DataRecordSchema#wrap(Object[])
+     */
+    public static DataRecord wrapValues(DataRecordSchema schema, Object[] values) {
+        return schema.wrap(values);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ericsson.de.scenarios.api;
+
+import com.google.common.base.Optional;
+
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+/**
+ * Test Step which does not block thread while waiting for response (i.e. non blocking protocol clients).
+ * Engine subscribes to Observable returned by {@link #doRunAsync(DataRecordWrapper)} and continues with next Test Step
+ * when it completes, so vUser holds a thread only while it is actually doing work.
+ * <p>
+ * Next Test Steps of the vUser are executed in worker thread of the engine, not in the thread which completed the
+ * Observable, so blocking Test Steps don't hold threads of protocol client.
+ */
+public abstract class AsyncTestStep extends TestStep {
+
+    public AsyncTestStep(String name) {
+        super(name);
+    }
+
+    /**
+     * @return Observable which emits result of Test Step ({@link Optional#absent()} if nothing was emitted) and completes
+     */
+    public Observable<Optional<Object>> runAsync(DataRecordWrapper dataRecord) {
+        final DataRecordWrapper wrappedDataRecord = wrapWithParameters(dataRecord);
+        return Observable.defer(new Func0<Observable<Object>>() {
+            @Override
+            public Observable<Object> call() {
+                try {
+                    return doRunAsync(wrappedDataRecord).cast(Object.class);
+                } catch (Exception e) {
+                    return Observable.error(e);
+                }
+            }
+        }).lastOrDefault(null).map(new Func1<Object, Optional<Object>>() {
+            @Override
+            public Optional<Object> call(Object value) {
+                Optional<Object> result = Optional.fromNullable(value);
+                parseResult(result);
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Blocking execution, used if Test Step is run outside of engine
+     */
+    @Override
+    protected final Optional<Object> doRun(DataRecordWrapper dataRecord) throws Exception {
+        Object result = doRunAsync(dataRecord).cast(Object.class).toBlocking().lastOrDefault(null);
+        return Optional.fromNullable(result);
+    }
+
+    /**
+     * @return Observable which emits result of Test Step. If multiple values are emitted, last one is the result
+     */
+    protected abstract Observable<?> doRunAsync(DataRecordWrapper dataRecord) throws Exception;
+}
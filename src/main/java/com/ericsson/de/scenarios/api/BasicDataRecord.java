@@ -21,7 +21,8 @@ import com.google.common.collect.Maps;
 
 /**
  * Basic HashMap implementation of Data Records.
- * Contains {@link DataRecordBuilder} to facilitate Data Record construction.
+ * Contains {@link DataRecordBuilder} to facilitate Data Record construction,
+ * which builds compact records sharing {@link DataRecordSchema} of the same field names.
  */
 public class BasicDataRecord implements DataRecord {
     /**
@@ -94,7 +95,7 @@ public class BasicDataRecord implements DataRecord {
      * This class allows a user to build a DataRecord, with as many fields as they want.
      */
     public static final class DataRecordBuilder {
-        private final Map<String, Object> data = Maps.newHashMap();
+        private final Map<String, Object> data = Maps.newLinkedHashMap();
 
         DataRecordBuilder() {
         }
@@ -167,7 +168,8 @@ public class BasicDataRecord implements DataRecord {
             DefaultDataRecordTransformer<T> defaultDataRecordTransformer = new DefaultDataRecordTransformer<>();
             checkArgument(defaultDataRecordTransformer.canTransformTo(type),
                     "Unable to convert to " + type.getSimpleName() + ", as it does not subclass of" + " DataRecord");
-            return defaultDataRecordTransformer.transform(new BasicDataRecord(data), type);
+            DataRecordSchema schema = DataRecordSchema.of(data.keySet());
+            return defaultDataRecordTransformer.transform(schema.wrap(data.values().toArray()), type);
         }
     }
 }
@@ -6,6 +6,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.ericsson.de.scenarios.impl.Bridge;
+import com.google.common.base.Optional;
 
 /**
  * Only mutable implementation of Data Source in Rx RxScenario.
@@ -37,6 +38,11 @@ public class ContextDataSource<T> extends DataSource<T> {
         return results.iterator();
     }
 
+    @Override
+    protected Optional<Integer> knownSize() {
+        return populated.get() ? Optional.of(results.size()) : Optional.<Integer>absent();
+    }
+
     @Override
     protected DataSource<T> newDefinition() {
         return new ContextDataSource<>(name, (Class<T>) getType(), populated, results);
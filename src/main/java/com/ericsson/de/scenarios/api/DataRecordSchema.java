@@ -0,0 +1,104 @@
+package com.ericsson.de.scenarios.api;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Maps;
+
+/**
+ * Immutable ordered set of field names shared by Data Records of the same shape, i.e. rows of one CSV file.
+ * Records created by {@link #record(Object...)} keep only array of values, field is found by its precomputed index.
+ * Schemas with same field names are interned, so equal shapes share one instance.
+ */
+public final class DataRecordSchema {
+
+    static final String ERROR_DUPLICATE_FIELD = "Field '%s' is defined more than once";
+    static final String ERROR_VALUE_COUNT = "Expected %s values for fields %s, but got %s";
+
+    private static final Interner<DataRecordSchema> SCHEMAS = Interners.newWeakInterner();
+
+    private final ImmutableList<String> fieldNames;
+    private final ImmutableMap<String, Integer> indexes;
+
+    private DataRecordSchema(List<String> fieldNames) {
+        Map<String, Integer> indexes = Maps.newLinkedHashMap();
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String fieldName = checkNotNull(fieldNames.get(i), TestStep.ERROR_PARAMETER_NULL);
+            checkArgument(indexes.put(fieldName, i) == null, ERROR_DUPLICATE_FIELD, fieldName);
+        }
+        this.fieldNames = ImmutableList.copyOf(fieldNames);
+        this.indexes = ImmutableMap.copyOf(indexes);
+    }
+
+    public static DataRecordSchema of(String... fieldNames) {
+        return of(ImmutableList.copyOf(fieldNames));
+    }
+
+    public static DataRecordSchema of(Iterable<String> fieldNames) {
+        return SCHEMAS.intern(new DataRecordSchema(ImmutableList.copyOf(fieldNames)));
+    }
+
+    /**
+     * @return Data Record with given values of fields in order of {@link #getFieldNames()}
+     */
+    public DataRecord record(Object... values) {
+        return wrap(values.clone());
+    }
+
+    /**
+     * @return Data Record which takes ownership of {@code values} without copying, so caller should not change array
+     * after that
+     */
+    DataRecord wrap(Object[] values) {
+        checkArgument(values.length == fieldNames.size(), ERROR_VALUE_COUNT, fieldNames.size(), fieldNames, values.length);
+        return new SchemaDataRecord(this, values);
+    }
+
+    public List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * @return index of field in values of records or -1 if there is no such field
+     */
+    public int indexOf(String fieldName) {
+        Integer index = indexes.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    public int size() {
+        return fieldNames.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof DataRecordSchema && fieldNames.equals(((DataRecordSchema) o).fieldNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return fieldNames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return fieldNames.toString();
+    }
+}
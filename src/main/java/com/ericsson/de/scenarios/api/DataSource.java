@@ -16,14 +16,18 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.newArrayList;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
 import com.ericsson.de.scenarios.impl.DefaultDataRecordTransformer;
 import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 
 /**
@@ -37,6 +41,7 @@ public abstract class DataSource<T> implements Iterable {
     private final Class<?> type;
     private boolean shared;
     private boolean cyclic;
+    private boolean streaming;
     final List<Predicate<? super DataRecord>> filters = newArrayList();
 
     protected DataSource(String name, Class<?> type) {
@@ -62,6 +67,15 @@ public abstract class DataSource<T> implements Iterable {
         return cyclic;
     }
 
+    /**
+     * Determines whether Data Source is read again on each use instead of being kept in memory.
+     *
+     * @return true if streaming, else false.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     /**
      * @return name of Data Source.
      */
@@ -70,18 +84,43 @@ public abstract class DataSource<T> implements Iterable {
     }
 
     /**
-     * @return Iterator of {@link DataRecord} (RxScenario Data Records)
+     * @return Iterator of {@link DataRecord} (RxScenario Data Records), which is {@link Closeable} if iterator
+     * provided by {@link #getIterator()} is
      */
     @Override
     public final Iterator<? extends DataRecord> iterator() {
-        return Iterators.filter(getIterator(), Predicates.and(filters));
+        Iterator<? extends DataRecord> iterator = getIterator();
+        if (filters.isEmpty()) {
+            return iterator;
+        }
+        return iterator instanceof Closeable ? new FilteredIterator(iterator, Predicates.and(filters))
+                : Iterators.filter(iterator, Predicates.and(filters));
     }
 
     /**
-     * @return Count of {@link DataRecord} in Data Source
+     * @return Count of {@link DataRecord} in Data Source, Data Source is iterated only if its size is not known
+     * @see #getSizeHint()
      */
     public int getSize() {
-        return Iterators.size(iterator());
+        Optional<Integer> sizeHint = getSizeHint();
+        return sizeHint.isPresent() ? sizeHint.get() : Iterators.size(iterator());
+    }
+
+    /**
+     * @return Count of {@link DataRecord} in Data Source if it is known without iteration,
+     * absent if Data Source is filtered or its size is not known in advance
+     */
+    public Optional<Integer> getSizeHint() {
+        return filters.isEmpty() ? knownSize() : Optional.<Integer>absent();
+    }
+
+    /**
+     * Method for overrides
+     *
+     * @return exact count of Data Records provided by {@link #getIterator()}, if it is cheap to find out
+     */
+    protected Optional<Integer> knownSize() {
+        return Optional.absent();
     }
 
     /**
@@ -125,10 +164,22 @@ public abstract class DataSource<T> implements Iterable {
         return copy;
     }
 
+    /**
+     * Data Records are not kept in memory after they are consumed by vUsers,
+     * Data Source is iterated again each time flow needs its Data Records (i.e. for each cycle of cyclic Data Source)
+     * Note: use for large Data Sources, which are cheap to iterate multiple times
+     */
+    public DataSource<T> streaming() {
+        DataSource<T> copy = copy();
+        copy.streaming = true;
+        return copy;
+    }
+
     private DataSource<T> copy() {
         DataSource<T> definition = newDefinition();
         definition.shared = shared;
         definition.cyclic = cyclic;
+        definition.streaming = streaming;
         definition.filters.addAll(filters);
 
         return definition;
@@ -243,7 +294,34 @@ public abstract class DataSource<T> implements Iterable {
 
     @Override
     public String toString() {
-        String dataSourceType = Joiner.on(", ").skipNulls().join(new String[] { shared ? "shared" : null, cyclic ? "cyclic" : null });
+        String dataSourceType = Joiner.on(", ").skipNulls()
+                .join(new String[] { shared ? "shared" : null, cyclic ? "cyclic" : null, streaming ? "streaming" : null });
         return format(SUMMARY_TEMPLATE, dataSourceType, name).trim();
     }
+
+    private static final class FilteredIterator extends AbstractIterator<DataRecord> implements Closeable {
+        private final Iterator<? extends DataRecord> iterator;
+        private final Predicate<? super DataRecord> filter;
+
+        private FilteredIterator(Iterator<? extends DataRecord> iterator, Predicate<? super DataRecord> filter) {
+            this.iterator = iterator;
+            this.filter = filter;
+        }
+
+        @Override
+        protected DataRecord computeNext() {
+            while (iterator.hasNext()) {
+                DataRecord dataRecord = iterator.next();
+                if (filter.apply(dataRecord)) {
+                    return dataRecord;
+                }
+            }
+            return endOfData();
+        }
+
+        @Override
+        public void close() throws IOException {
+            ((Closeable) iterator).close();
+        }
+    }
 }
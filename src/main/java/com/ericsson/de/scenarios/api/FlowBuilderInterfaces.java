@@ -87,5 +87,9 @@ public final class FlowBuilderInterfaces {
         Options<T> withExceptionHandler(ExceptionHandler exceptionHandler);
 
         Options<T> runWhile(Predicate<DataRecordWrapper> predicate);
+
+        Options<T> withContinuousVUsers();
+
+        Options<T> withPipelinedSubflows();
     }
 }
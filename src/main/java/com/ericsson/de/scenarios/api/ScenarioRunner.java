@@ -5,6 +5,7 @@ import java.util.List;
 import com.ericsson.de.scenarios.impl.RxScenario;
 import com.ericsson.de.scenarios.impl.RxScenarioListener;
 import com.ericsson.de.scenarios.impl.RxScenarioRunner;
+import com.ericsson.de.scenarios.impl.WorkerPool;
 import com.ericsson.de.scenarios.impl.graph.export.GraphExporter;
 import com.ericsson.de.scenarios.impl.graph.export.GraphMlExporter;
 import com.ericsson.de.scenarios.impl.graph.export.SvgExporter;
@@ -14,8 +15,9 @@ public class ScenarioRunner extends RxScenarioRunner {
     static GraphExporter graphMlExporter = new GraphMlExporter();
     static GraphExporter svgExporter = new SvgExporter();
 
-    ScenarioRunner(DebugGraphMode debugGraphMode, List<RxScenarioListener> listeners, ExceptionHandler defaultExceptionHandler) {
-        super(debugGraphMode, listeners, defaultExceptionHandler);
+    ScenarioRunner(DebugGraphMode debugGraphMode, List<RxScenarioListener> listeners, ExceptionHandler defaultExceptionHandler,
+            WorkerPool workerPool, boolean streamResults) {
+        super(debugGraphMode, listeners, defaultExceptionHandler, workerPool, streamResults);
     }
 
     @Override
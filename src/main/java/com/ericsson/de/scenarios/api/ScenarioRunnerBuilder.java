@@ -9,10 +9,16 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Lists.newArrayList;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.ericsson.de.scenarios.impl.DebugLogScenarioListener;
+import com.ericsson.de.scenarios.impl.ResultSinkListener;
+import com.ericsson.de.scenarios.impl.RxAsyncListener;
+import com.ericsson.de.scenarios.impl.RxResultSink;
 import com.ericsson.de.scenarios.impl.RxFlowBuilder;
 import com.ericsson.de.scenarios.impl.RxScenarioListener;
+import com.ericsson.de.scenarios.impl.WorkerPool;
 import com.google.common.base.Preconditions;
 
 public class ScenarioRunnerBuilder implements Builder<ScenarioRunner> {
@@ -30,6 +36,8 @@ public class ScenarioRunnerBuilder implements Builder<ScenarioRunner> {
     DebugGraphMode debugGraphMode = null;
     List<RxScenarioListener> listeners = newArrayList();
     ExceptionHandler defaultExceptionHandler;
+    WorkerPool workerPool;
+    Boolean streamResults = null;
 
     ScenarioRunnerBuilder() {
     }
@@ -63,6 +71,25 @@ public class ScenarioRunnerBuilder implements Builder<ScenarioRunner> {
         return this;
     }
 
+    /**
+     * Subscribes custom listener which gets notifications on its own thread, so slow listener does not delay
+     * Test Steps. When listener can't keep up, Test Step events are handled according to {@code backpressure}
+     *
+     * @see RxAsyncListener
+     */
+    public ScenarioRunnerBuilder addListener(ScenarioListener listener, RxAsyncListener.Backpressure backpressure) {
+        return addListener(new RxAsyncListener(listener, backpressure));
+    }
+
+    /**
+     * Subscribes asynchronous listener, see {@link #addListener(ScenarioListener, RxAsyncListener.Backpressure)}
+     */
+    public ScenarioRunnerBuilder addListener(RxAsyncListener listener) {
+        checkState(!listeners.contains(listener), ERROR_LISTENER_DUPLICATE);
+        listeners.add(listener);
+        return this;
+    }
+
     /**
      * Sets a default exception handler for all Scenarios which will be started with this Runner.
      * In case if an exception gets thrown in a RxFlow without any exception handlers,
@@ -80,6 +107,65 @@ public class ScenarioRunnerBuilder implements Builder<ScenarioRunner> {
         return this;
     }
 
+    /**
+     * Configures pool of worker threads which is shared by all Flows, Subflows and vUsers started with this Runner.
+     * Pool keeps {@code coreThreads} threads ready and starts additional threads on demand, idle threads are
+     * released after {@code keepAlive} time. Number of vUsers running in parallel is defined by Flows, not by pool size.
+     */
+    public ScenarioRunnerBuilder withWorkerPool(int coreThreads, long keepAlive, TimeUnit unit) {
+        checkArgument(unit != null, TestStep.ERROR_PARAMETER_NULL, "unit");
+        checkState(workerPool == null, TestStep.ERROR_PARAMETER_ALREADY_SET, "workerPool");
+        workerPool = new WorkerPool(coreThreads, keepAlive, unit);
+        return this;
+    }
+
+    /**
+     * Runs vUsers on custom {@code executor} instead of default worker pool. Executor should start task immediately
+     * (i.e. not queue it), as vUsers of Flows wait for their Subflows.
+     */
+    public ScenarioRunnerBuilder withExecutor(ExecutorService executor) {
+        checkArgument(executor != null, TestStep.ERROR_PARAMETER_NULL, "executor");
+        checkState(workerPool == null, TestStep.ERROR_PARAMETER_ALREADY_SET, "workerPool");
+        workerPool = new WorkerPool(executor);
+        return this;
+    }
+
+    /**
+     * Runs each vUser on its own virtual thread, so blocking Test Steps don't limit count of vUsers by thread budget.
+     * Requires JDK 21 or later at runtime.
+     *
+     * @throws UnsupportedOperationException
+     *         if current JDK does not support virtual threads
+     */
+    public ScenarioRunnerBuilder withVirtualThreads() {
+        checkState(workerPool == null, TestStep.ERROR_PARAMETER_ALREADY_SET, "workerPool");
+        workerPool = WorkerPool.virtualThreads();
+        return this;
+    }
+
+    /**
+     * Passes results of all Test Steps to {@code sink} as soon as they are finished
+     *
+     * @see #withStreamingResults()
+     */
+    public ScenarioRunnerBuilder addResultSink(RxResultSink sink) {
+        checkArgument(sink != null, TestStep.ERROR_PARAMETER_NULL, "sink");
+        listeners.add(new ResultSinkListener(sink));
+        return this;
+    }
+
+    /**
+     * Results of Test Steps are passed to listeners and result sinks and then dropped, so memory use does not grow
+     * during long runs. Execution graph is not created in this mode.
+     *
+     * @see #addResultSink(RxResultSink)
+     */
+    public ScenarioRunnerBuilder withStreamingResults() {
+        checkState(streamResults == null, TestStep.ERROR_PARAMETER_ALREADY_SET, "streamResults");
+        streamResults = true;
+        return this;
+    }
+
     @Override
     public ScenarioRunner build() {
         Boolean scenarioDebugLogEnabled = toDebugLogEnabled(System.getProperty(DEBUG_LOG_ENABLED));
@@ -93,8 +179,9 @@ public class ScenarioRunnerBuilder implements Builder<ScenarioRunner> {
         }
 
         defaultExceptionHandler = firstNonNull(defaultExceptionHandler, ExceptionHandler.PROPAGATE);
+        workerPool = workerPool == null ? new WorkerPool() : workerPool;
 
-        return new ScenarioRunner(this.debugGraphMode, listeners, defaultExceptionHandler);
+        return new ScenarioRunner(this.debugGraphMode, listeners, defaultExceptionHandler, workerPool, firstNonNull(streamResults, false));
     }
 
     private Boolean toDebugLogEnabled(String property) {
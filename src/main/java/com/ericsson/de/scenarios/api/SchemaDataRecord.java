@@ -0,0 +1,109 @@
+package com.ericsson.de.scenarios.api;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Data Record which stores values in array indexed by shared {@link DataRecordSchema}
+ */
+final class SchemaDataRecord implements DataRecord {
+
+    private final DataRecordSchema schema;
+    private final Object[] values;
+
+    SchemaDataRecord(DataRecordSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getFieldValue(String name) {
+        int index = schema.indexOf(name);
+        return index < 0 ? null : (T) values[index];
+    }
+
+    /**
+     * @return read-only view of fields in schema order
+     */
+    @Override
+    public Map<String, Object> getAllFields() {
+        return new Fields();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("values", getAllFields()).toString();
+    }
+
+    private final class Fields extends AbstractMap<String, Object> {
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String ? getFieldValue((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && schema.indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> entry = new SimpleImmutableEntry<>(schema.getFieldNames().get(index), values[index]);
+                            index++;
+                            return entry;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
+    }
+}
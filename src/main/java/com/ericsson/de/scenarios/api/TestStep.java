@@ -10,6 +10,7 @@ import java.util.Map;
 import com.ericsson.de.scenarios.impl.Bridge;
 import com.ericsson.de.scenarios.impl.Invocation;
 import com.ericsson.de.scenarios.impl.RxFlowBuilder;
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 
 /**
@@ -30,6 +31,7 @@ public abstract class TestStep extends Invocation {
     private final Map<String, String> bindings = new HashMap<>();
     private boolean alwaysRun;
     private ContextDataSource resultingDataSource;
+    private volatile Function<DataRecordWrapper, DataRecordWrapper> parameterWrapper;
 
     public TestStep(String name) {
         this.name = name;
@@ -94,14 +96,23 @@ public abstract class TestStep extends Invocation {
     }
 
     public Optional<Object> run(DataRecordWrapper dataRecord) throws Exception {
-        DataRecordWrapper wrappedDataRecord = Bridge.wrapWithParameters(parameters, bindings, dataRecord);
+        DataRecordWrapper wrappedDataRecord = wrapWithParameters(dataRecord);
         Optional<Object> result = doRun(wrappedDataRecord);
         parseResult(result);
 
         return result;
     }
 
-    private void parseResult(Optional<Object> result) {
+    DataRecordWrapper wrapWithParameters(DataRecordWrapper dataRecord) {
+        Function<DataRecordWrapper, DataRecordWrapper> wrapper = parameterWrapper;
+        if (wrapper == null) {
+            wrapper = Bridge.parameterWrapper(parameters, bindings);
+            parameterWrapper = wrapper;
+        }
+        return wrapper.apply(dataRecord);
+    }
+
+    void parseResult(Optional<Object> result) {
         if (resultingDataSource != null && result.isPresent()) {
             resultingDataSource.collectFromResult(getName(), result.get());
         }
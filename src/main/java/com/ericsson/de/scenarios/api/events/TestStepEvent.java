@@ -1,5 +1,7 @@
 package com.ericsson.de.scenarios.api.events;
 
+import java.util.concurrent.TimeUnit;
+
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
 import com.ericsson.de.scenarios.api.TestStep;
 
@@ -33,11 +35,19 @@ public class TestStepEvent extends Event {
 
         private TestStep.Status status;
         private Throwable error;
+        private long startTime;
+        private long duration;
 
-        public TestStepFinishedEvent(TestStep testStep, TestStep.Status status, Throwable error) {
+        /**
+         * @param startTime wall clock start time in milliseconds
+         * @param duration duration in nanoseconds
+         */
+        public TestStepFinishedEvent(TestStep testStep, TestStep.Status status, Throwable error, long startTime, long duration) {
             super(testStep);
             this.status = status;
             this.error = error;
+            this.startTime = startTime;
+            this.duration = duration;
         }
 
         public TestStep.Status getStatus() {
@@ -47,5 +57,19 @@ public class TestStepEvent extends Event {
         public Throwable getError() {
             return error;
         }
+
+        /**
+         * @return wall clock start time in milliseconds
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return duration of Test Step measured with monotonic clock
+         */
+        public long getDuration(TimeUnit unit) {
+            return unit.convert(duration, TimeUnit.NANOSECONDS);
+        }
     }
 }
@@ -9,6 +9,7 @@ import java.util.Map;
 
 import com.ericsson.de.scenarios.api.DataRecord;
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
+import com.google.common.base.Function;
 
 /**
  * Provide access to some internal functionality located in impl to api package
@@ -18,10 +19,16 @@ public final class Bridge {
     }
 
     public static DataRecordWrapper wrapWithParameters(Map<String, Object> parameters, Map<String, String> bindings, DataRecordWrapper dataRecord) {
-        dataRecord = parameters.isEmpty() ? dataRecord : new DataRecords.Parameter(dataRecord, parameters);
-        dataRecord = bindings.isEmpty() ? dataRecord : new DataRecords.Binding(dataRecord, bindings);
+        return parameterWrapper(parameters, bindings).apply(dataRecord);
+    }
 
-        return dataRecord;
+    /**
+     * @return function wrapping Data Record with given parameters and bindings, which are resolved once when function
+     * is created
+     */
+    public static Function<DataRecordWrapper, DataRecordWrapper> parameterWrapper(Map<String, Object> parameters,
+            Map<String, String> bindings) {
+        return new DataRecords.ParameterWrapper(parameters, bindings);
     }
 
     public static boolean isCollectionOfDataRecords(Object returnedValue) {
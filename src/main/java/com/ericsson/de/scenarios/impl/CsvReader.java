@@ -1,84 +1,375 @@
 package com.ericsson.de.scenarios.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
-import com.ericsson.de.scenarios.api.BasicDataRecord;
+import com.ericsson.de.scenarios.api.ApiBridge;
 import com.ericsson.de.scenarios.api.DataRecord;
+import com.ericsson.de.scenarios.api.DataRecordSchema;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Lists;
+import com.google.common.io.CharSource;
 import com.google.common.io.Resources;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 final class CsvReader {
 
     private static final String CSV_EXTENSION = ".csv";
+    private static final String GZIP_EXTENSION = ".gz";
 
     static final String ERROR_PATH_UNDEFINED = "'path' is undefined";
-    static final String ERROR_CSV_EXTENSION = String.format("File extension must be '%s'", CSV_EXTENSION);
+    static final String ERROR_CSV_EXTENSION = String.format("File extension must be '%s' or '%s%s'", CSV_EXTENSION, CSV_EXTENSION, GZIP_EXTENSION);
     static final String ERROR_DATA_RECORD_LIST_EMPTY = "Data source is empty";
     static final String ERROR_COLUMN_MISMATCH_TEMPLATE = "Amount of headers and values must be equal. Headers %s; Values: %s";
+    static final String ERROR_CONVERSION_TEMPLATE = "Unable to convert value `%s` in row %s, column `%s` to `%s`";
+
+    static final String ERROR_PARALLELISM = "Parallelism should be positive";
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final CSVFormat FORMAT = CSVFormat.EXCEL.withCommentMarker('#');
+    private static final DefaultDataRecordTransformer<DataRecord> CONVERTER = new DefaultDataRecordTransformer<>();
 
     private CsvReader() {
     }
 
     static List<DataRecord> read(String path) {
-        Preconditions.checkNotNull(path, ERROR_PATH_UNDEFINED);
-        Preconditions.checkState(path.endsWith(CSV_EXTENSION), ERROR_CSV_EXTENSION);
+        return read(path, Collections.<String, Class<?>>emptyMap());
+    }
+
+    static List<DataRecord> read(String path, Map<String, Class<?>> columnTypes) {
+        List<DataRecord> dataRecordList = Lists.newArrayList(iterate(path, columnTypes));
+        Preconditions.checkState(!dataRecordList.isEmpty(), ERROR_DATA_RECORD_LIST_EMPTY);
+        return dataRecordList;
+    }
 
-        List<DataRecord> dataRecordList;
-        try (BufferedReader reader = createReader(path)) {
-            Iterator<CSVRecord> records = CSVFormat.EXCEL.withCommentMarker('#').parse(reader).iterator();
-            dataRecordList = parseCSV(records);
+    /**
+     * Opens CSV from file system or classpath (gzipped if path ends with {@code .csv.gz}) and parses rows only when
+     * they are requested. File is closed when iterator is exhausted or fails, or by {@link RecordIterator#close()}.
+     * Values of columns present in {@code columnTypes} are converted to given type once, when row is parsed,
+     * other values are kept as strings.
+     */
+    static RecordIterator iterate(String path, Map<String, Class<?>> columnTypes) {
+        checkPath(path);
+
+        try {
+            return new SequentialRecordIterator(FORMAT.parse(createReader(path)), columnTypes);
         } catch (Exception e) {
             Throwables.throwIfUnchecked(e);
             throw new RuntimeException(e);
         }
+    }
 
-        Preconditions.checkState(!dataRecordList.isEmpty(), ERROR_DATA_RECORD_LIST_EMPTY);
-        return dataRecordList;
+    static RecordIterator iterateParallel(String path, Map<String, Class<?>> columnTypes, int parallelism, boolean ordered) {
+        return iterateParallel(path, columnTypes, parallelism, ordered, DEFAULT_CHUNK_SIZE);
     }
 
-    private static List<DataRecord> parseCSV(final Iterator<CSVRecord> records) {
-        List<DataRecord> dataRecordList = Lists.newArrayList();
-        if (records.hasNext()) {
-            List<String> headers = parseLine(records.next());
-            while (records.hasNext()) {
-                List<String> cells = parseLine(records.next());
-                dataRecordList.add(toDataRecord(headers, cells));
-            }
+    /**
+     * Memory maps CSV file and parses newline aligned chunks of it on {@code parallelism} threads. Records are
+     * returned in file order if {@code ordered}, otherwise chunks are returned as soon as they are parsed. Only
+     * limited number of chunks is parsed ahead, so memory does not depend on file size.
+     * <p>
+     * Quoted values must not contain line breaks, as chunk boundaries are not aware of quotes. Gzipped files and
+     * classpath resources can't be mapped and are read by single thread, see {@link #iterate(String, Map)}.
+     */
+    static RecordIterator iterateParallel(String path, Map<String, Class<?>> columnTypes, int parallelism, boolean ordered, int chunkSize) {
+        checkPath(path);
+        Preconditions.checkArgument(parallelism > 0, ERROR_PARALLELISM);
+
+        Path file = Paths.get(path);
+        if (parallelism == 1 || path.endsWith(GZIP_EXTENSION) || !Files.isRegularFile(file)) {
+            return iterate(path, columnTypes);
         }
-        return dataRecordList;
+        try {
+            return new ParallelRecordIterator(FileChannel.open(file, StandardOpenOption.READ), columnTypes, parallelism, ordered, chunkSize);
+        } catch (Exception e) {
+            Throwables.throwIfUnchecked(e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void checkPath(String path) {
+        Preconditions.checkNotNull(path, ERROR_PATH_UNDEFINED);
+        Preconditions.checkState(path.endsWith(CSV_EXTENSION) || path.endsWith(CSV_EXTENSION + GZIP_EXTENSION), ERROR_CSV_EXTENSION);
+    }
+
+    private static BufferedReader createReader(String path) throws IOException {
+        Path file = Paths.get(path);
+        InputStream stream = Files.isRegularFile(file) ? Files.newInputStream(file) : Resources.getResource(path).openStream();
+        if (path.endsWith(GZIP_EXTENSION)) {
+            stream = new GZIPInputStream(stream);
+        }
+        return new BufferedReader(new InputStreamReader(stream, UTF_8));
+    }
+
+    /**
+     * @param row
+     *         row description for error messages
+     */
+    private static DataRecord toDataRecord(DataRecordSchema schema, Class<?>[] types, CSVRecord csvRecord, Object row) {
+        Preconditions.checkState(schema.size() == csvRecord.size(), ERROR_COLUMN_MISMATCH_TEMPLATE, schema.size(), csvRecord.size());
+        Object[] values = new Object[csvRecord.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = types[i] == null ? csvRecord.get(i) : convert(schema, types, csvRecord, i, row);
+        }
+        return ApiBridge.wrapValues(schema, values);
     }
 
-    private static List<String> parseLine(CSVRecord csvRecord) {
-        List<String> cells = new ArrayList<>();
-        for (String cell : csvRecord) {
-            cells.add(cell);
+    private static Object convert(DataRecordSchema schema, Class<?>[] types, CSVRecord csvRecord, int column, Object row) {
+        String value = csvRecord.get(column);
+        String name = schema.getFieldNames().get(column);
+        try {
+            return CONVERTER.convert(name, value, types[column]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(ERROR_CONVERSION_TEMPLATE, value, row, name, types[column].getSimpleName()), e);
         }
-        return cells;
     }
 
-    private static BufferedReader createReader(String path) throws FileNotFoundException {
-        FileReader fileReader = new FileReader(Resources.getResource(path).getFile());
-        return new BufferedReader(fileReader);
+    /**
+     * @return type of each column or null if column stays string
+     */
+    private static Class<?>[] columnTypes(DataRecordSchema schema, Map<String, Class<?>> columnTypes) {
+        Class<?>[] types = new Class<?>[schema.size()];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = columnTypes.get(schema.getFieldNames().get(i));
+            types[i] = type == null || type == String.class || type == Object.class ? null : type;
+        }
+        return types;
     }
 
-    private static DataRecord toDataRecord(List<String> headers, List<String> values) {
-        Preconditions.checkState(headers.size() == values.size(), ERROR_COLUMN_MISMATCH_TEMPLATE, headers.size(), values.size());
-        Map<String, Object> row = new LinkedHashMap<>();
-        for (int i = 0; i < headers.size(); i++) {
-            row.put(headers.get(i), values.get(i));
+    abstract static class RecordIterator extends AbstractIterator<DataRecord> implements Closeable {
+
+        @Override
+        public abstract void close();
+    }
+
+    private static final class SequentialRecordIterator extends RecordIterator {
+
+        private final CSVParser parser;
+        private final Iterator<CSVRecord> records;
+        private final Map<String, Class<?>> columnTypes;
+        private DataRecordSchema schema;
+        private Class<?>[] types;
+
+        private SequentialRecordIterator(CSVParser parser, Map<String, Class<?>> columnTypes) {
+            this.parser = parser;
+            this.records = parser.iterator();
+            this.columnTypes = columnTypes;
+        }
+
+        @Override
+        protected DataRecord computeNext() {
+            try {
+                if (schema == null && records.hasNext()) {
+                    schema = DataRecordSchema.of(records.next());
+                    types = columnTypes(schema, columnTypes);
+                }
+                if (records.hasNext()) {
+                    CSVRecord record = records.next();
+                    return toDataRecord(schema, types, record, record.getRecordNumber() - 1);
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            close();
+            return endOfData();
+        }
+
+        @Override
+        public void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static final class ParallelRecordIterator extends RecordIterator {
+
+        private static final int BOUNDARY_SCAN_SIZE = 64 * 1024;
+
+        private final FileChannel channel;
+        private final long size;
+        private final int chunkSize;
+        private final int maxChunksAhead;
+        private final ExecutorService executor;
+        private final Deque<Future<List<DataRecord>>> orderedChunks;
+        private final CompletionService<List<DataRecord>> unorderedChunks;
+        private final DataRecordSchema schema;
+        private final Class<?>[] types;
+        private long nextChunkStart;
+        private int chunksAhead = 0;
+        private Iterator<DataRecord> current = Collections.emptyIterator();
+
+        private ParallelRecordIterator(FileChannel channel, Map<String, Class<?>> columnTypes, int parallelism, boolean ordered, int chunkSize)
+                throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.chunkSize = chunkSize;
+            this.maxChunksAhead = parallelism * 2;
+            ThreadFactory threads = new ThreadFactoryBuilder().setNameFormat("csv-parser-%d").setDaemon(true).build();
+            this.executor = Executors.newFixedThreadPool(parallelism, threads);
+            this.orderedChunks = ordered ? new ArrayDeque<Future<List<DataRecord>>>() : null;
+            this.unorderedChunks = ordered ? null : new ExecutorCompletionService<List<DataRecord>>(executor);
+
+            long headerEnd = headerEnd();
+            try (CSVParser header = FORMAT.parse(CharSource.wrap(decode(0, headerEnd)).openStream())) {
+                Iterator<CSVRecord> records = header.iterator();
+                this.schema = records.hasNext() ? DataRecordSchema.of(records.next()) : DataRecordSchema.of();
+            }
+            this.types = columnTypes(schema, columnTypes);
+            this.nextChunkStart = headerEnd;
+        }
+
+        @Override
+        protected DataRecord computeNext() {
+            try {
+                while (!current.hasNext()) {
+                    scheduleChunks();
+                    if (chunksAhead == 0) {
+                        close();
+                        return endOfData();
+                    }
+                    current = nextChunk().iterator();
+                }
+                return current.next();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void scheduleChunks() {
+            while (chunksAhead < maxChunksAhead && nextChunkStart < size) {
+                final long start = nextChunkStart;
+                final long end = lineEnd(Math.min(start + chunkSize, size));
+                Callable<List<DataRecord>> parse = new Callable<List<DataRecord>>() {
+                    @Override
+                    public List<DataRecord> call() throws Exception {
+                        return parseChunk(start, end);
+                    }
+                };
+                if (orderedChunks != null) {
+                    orderedChunks.add(executor.submit(parse));
+                } else {
+                    unorderedChunks.submit(parse);
+                }
+                nextChunkStart = end;
+                chunksAhead++;
+            }
+        }
+
+        private List<DataRecord> nextChunk() {
+            try {
+                Future<List<DataRecord>> chunk = orderedChunks != null ? orderedChunks.poll() : unorderedChunks.take();
+                chunksAhead--;
+                return chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        private List<DataRecord> parseChunk(long start, long end) throws IOException {
+            List<DataRecord> records = new ArrayList<>();
+            try (CSVParser parser = FORMAT.parse(CharSource.wrap(decode(start, end)).openStream())) {
+                for (CSVRecord record : parser) {
+                    records.add(toDataRecord(schema, types, record, String.format("%s after byte %s", record.getRecordNumber(), start)));
+                }
+            }
+            return records;
+        }
+
+        private CharBuffer decode(long start, long end) throws IOException {
+            return UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+        }
+
+        /**
+         * @return position after first line which is not a comment
+         */
+        private long headerEnd() throws IOException {
+            long lineStart = 0;
+            while (lineStart < size) {
+                long lineEnd = lineEnd(lineStart);
+                ByteBuffer first = ByteBuffer.allocate(1);
+                channel.read(first, lineStart);
+                if (first.get(0) != '#') {
+                    return lineEnd;
+                }
+                lineStart = lineEnd;
+            }
+            return size;
+        }
+
+        /**
+         * @return position after first line break at or after {@code position}, or file size
+         */
+        private long lineEnd(long position) {
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+                for (long offset = position; offset < size; offset += buffer.limit()) {
+                    buffer.clear();
+                    channel.read(buffer, offset);
+                    buffer.flip();
+                    for (int i = 0; i < buffer.limit(); i++) {
+                        if (buffer.get(i) == '\n') {
+                            return offset + i + 1;
+                        }
+                    }
+                }
+                return size;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
-        return BasicDataRecord.fromMap(row);
     }
 }
@@ -11,6 +11,7 @@ package com.ericsson.de.scenarios.impl;
  */
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 
 import java.util.Arrays;
@@ -43,6 +44,13 @@ import com.google.common.collect.Iterables;
 abstract class DataRecords implements DataRecordWrapper {
     private static final ObjectMapper mapper = new ObjectMapper();
     private static final Logger LOGGER = LoggerFactory.getLogger(DataRecords.class);
+
+    /**
+     * Separators of iteration numbers, see {@link #iterationNumbers(DataRecordWrapper)}
+     */
+    static final int PARENT_ITERATION = -1;
+    static final int MULTIPLE_ITERATION = -2;
+
     final String dataSourceName;
 
     DataRecords(String dataSourceName) {
@@ -59,7 +67,83 @@ abstract class DataRecords implements DataRecordWrapper {
      *
      * @return field value
      */
-    public abstract <V> Optional<V> getFieldValue(String name, Class<V> type);
+    @Override
+    public <V> Optional<V> getFieldValue(String name, Class<V> type) {
+        return Optional.fromNullable(fieldValue(path(name), type));
+    }
+
+    /**
+     * @return compiled path of field {@code name}
+     */
+    FieldPath path(String name) {
+        return FieldPath.of(name);
+    }
+
+    /**
+     * Resolves precompiled field path, same as {@link #getFieldValue(String, Class)}
+     *
+     * @return field value, or null if field is not found
+     */
+    abstract <V> V fieldValue(FieldPath path, Class<V> type);
+
+    /**
+     * Resolves field path against any wrapper, without allocations if wrapper is one of {@link DataRecords}
+     */
+    static <V> V fieldValue(DataRecordWrapper dataRecord, FieldPath path, Class<V> type) {
+        if (dataRecord instanceof DataRecords) {
+            return ((DataRecords) dataRecord).fieldValue(path, type);
+        }
+        return dataRecord.getFieldValue(path.name, type).orNull();
+    }
+
+    /**
+     * @return iteration of Data Record as numbers and separators, so it can be kept without Data Record and rendered
+     * same as {@link #getIteration()} by {@link #renderIteration(int[])}, or null if Data Record isn't built by engine
+     */
+    static int[] iterationNumbers(DataRecordWrapper dataRecord) {
+        int length = lengthOfIteration(dataRecord);
+        if (length < 0) {
+            return null;
+        }
+        int[] numbers = new int[length];
+        ((DataRecords) dataRecord).writeIteration(numbers, 0);
+        return numbers;
+    }
+
+    static String renderIteration(int[] numbers) {
+        StringBuilder iteration = new StringBuilder();
+        for (int number : numbers) {
+            if (number == PARENT_ITERATION) {
+                iteration.append('.');
+            } else if (number == MULTIPLE_ITERATION) {
+                iteration.append('-');
+            } else {
+                iteration.append(number);
+            }
+        }
+        return iteration.toString();
+    }
+
+    private static int lengthOfIteration(DataRecordWrapper dataRecord) {
+        return dataRecord instanceof DataRecords ? ((DataRecords) dataRecord).iterationLength() : -1;
+    }
+
+    /**
+     * @return count of numbers and separators in iteration, or -1 if it can't be written as numbers
+     */
+    int iterationLength() {
+        return 1;
+    }
+
+    /**
+     * Writes iteration numbers and separators to {@code numbers} starting from {@code offset}
+     *
+     * @return offset after written iteration
+     */
+    int writeIteration(int[] numbers, int offset) {
+        numbers[offset] = 0;
+        return offset + 1;
+    }
 
     /**
      * Gets name of the data source this record belongs to
@@ -93,22 +177,17 @@ abstract class DataRecords implements DataRecordWrapper {
         }
 
         @Override
-        public <V> Optional<V> getFieldValue(String name, Class<V> type) {
-            String[] fullName = name.split("\\.", 2);
-            if (fullName.length == 1) {
-                if (dataSourceName.equals(name) && transformer.canTransformTo(type)) {
+        <V> V fieldValue(FieldPath path, Class<V> type) {
+            if (path.isSimple()) {
+                if (dataSourceName.equals(path.name) && transformer.canTransformTo(type)) {
                     return transform(type);
                 } else {
-                    return fromDataRecord(name, type);
-                }
-            } else if (fullName.length == 2) {
-                if (dataSourceName.equals(fullName[0])) {
-                    return fromDataRecord(fullName[1], type);
-                } else {
-                    return fromDataRecord(name, type);
+                    return fromDataRecord(path, type);
                 }
+            } else if (dataSourceName.equals(path.head)) {
+                return fromDataRecord(path.tail, type);
             } else {
-                throw new IllegalStateException();
+                return fromDataRecord(path, type);
             }
         }
 
@@ -117,30 +196,31 @@ abstract class DataRecords implements DataRecordWrapper {
             return "" + iteration;
         }
 
+        @Override
+        int writeIteration(int[] numbers, int offset) {
+            numbers[offset] = iteration;
+            return offset + 1;
+        }
+
         @SuppressWarnings("unchecked")
-        private <V> Optional<V> transform(Class<V> type) {
-            return Optional.of((V) transformer.transform(dataRecord, type));
+        private <V> V transform(Class<V> type) {
+            return (V) transformer.transform(dataRecord, type);
         }
 
-        private <V> Optional<V> fromDataRecord(String name, Class<V> type) {
-            Object value = fromDataRecordRecursively(dataRecord, name, type);
-            if (value != null) {
-                return Optional.of(type.cast(value));
-            } else {
-                return Optional.absent();
-            }
+        private <V> V fromDataRecord(FieldPath path, Class<V> type) {
+            Object value = fromDataRecordRecursively(dataRecord, path, type);
+            return value != null ? type.cast(value) : null;
         }
 
-        private Object fromDataRecordRecursively(DataRecord dataRecord, String name, Class<?> type) {
-            String[] fullName = name.split("\\.", 2);
-            if (fullName.length == 1) {
-                Object value = dataRecord.getFieldValue(name);
-                return transformer.convert(name, value, type);
-            } else if (fullName.length == 2) {
-                Object value = dataRecord.getFieldValue(fullName[0]);
-                if (value != null && value instanceof DataRecord) {
-                    return fromDataRecordRecursively(DataRecord.class.cast(value), fullName[1], type);
-                }
+        private Object fromDataRecordRecursively(DataRecord dataRecord, FieldPath path, Class<?> type) {
+            if (path.isSimple()) {
+                Object value = dataRecord.getFieldValue(path.name);
+                return transformer.convert(path.name, value, type);
+            }
+
+            Object value = dataRecord.getFieldValue(path.head);
+            if (value instanceof DataRecord) {
+                return fromDataRecordRecursively(DataRecord.class.cast(value), path.tail, type);
             }
 
             return null;
@@ -158,8 +238,8 @@ abstract class DataRecords implements DataRecordWrapper {
         }
 
         @Override
-        public <V> Optional<V> getFieldValue(String name, Class<V> type) {
-            return Optional.absent();
+        <V> V fieldValue(FieldPath path, Class<V> type) {
+            return null;
         }
 
         @Override
@@ -180,7 +260,7 @@ abstract class DataRecords implements DataRecordWrapper {
         }
 
         @Override
-        public <V> Optional<V> getFieldValue(String name, Class<V> type) {
+        <V> V fieldValue(FieldPath path, Class<V> type) {
             String message = "Current test step shouldn't accept any arguments (e.g. Before or After rxFlow test steps)";
             throw new IllegalArgumentException(message);
         }
@@ -200,14 +280,14 @@ abstract class DataRecords implements DataRecordWrapper {
         }
 
         @Override
-        public <V> Optional<V> getFieldValue(String name, Class<V> type) {
+        <V> V fieldValue(FieldPath path, Class<V> type) {
             for (DataRecordWrapper dataRecord : dataRecords) {
-                Optional<V> fieldValue = dataRecord.getFieldValue(name, type);
-                if (fieldValue.isPresent()) {
+                V fieldValue = fieldValue(dataRecord, path, type);
+                if (fieldValue != null) {
                     return fieldValue;
                 }
             }
-            return Optional.absent();
+            return null;
         }
 
         @Override
@@ -220,6 +300,30 @@ abstract class DataRecords implements DataRecordWrapper {
             }));
         }
 
+        @Override
+        int iterationLength() {
+            int length = Math.max(dataRecords.size() - 1, 0);
+            for (DataRecordWrapper dataRecord : dataRecords) {
+                int dataRecordLength = lengthOfIteration(dataRecord);
+                if (dataRecordLength < 0) {
+                    return -1;
+                }
+                length += dataRecordLength;
+            }
+            return length;
+        }
+
+        @Override
+        int writeIteration(int[] numbers, int offset) {
+            for (int i = 0; i < dataRecords.size(); i++) {
+                if (i > 0) {
+                    numbers[offset++] = MULTIPLE_ITERATION;
+                }
+                offset = ((DataRecords) dataRecords.get(i)).writeIteration(numbers, offset);
+            }
+            return offset;
+        }
+
         @Override
         public String toString() {
             return dataRecords.toString();
@@ -237,18 +341,13 @@ abstract class DataRecords implements DataRecordWrapper {
         }
 
         @Override
-        public <V> Optional<V> getFieldValue(String name, Class<V> type) {
-            Optional<V> fieldValue = child.getFieldValue(name, type);
-            if (fieldValue.isPresent()) {
-                return fieldValue;
-            }
-
-            fieldValue = parent.getFieldValue(name, type);
-            if (fieldValue.isPresent()) {
+        <V> V fieldValue(FieldPath path, Class<V> type) {
+            V fieldValue = fieldValue(child, path, type);
+            if (fieldValue != null) {
                 return fieldValue;
             }
 
-            return Optional.absent();
+            return fieldValue(parent, path, type);
         }
 
         @Override
@@ -256,6 +355,20 @@ abstract class DataRecords implements DataRecordWrapper {
             return parent.getIteration() + "." + child.getIteration();
         }
 
+        @Override
+        int iterationLength() {
+            int parentLength = lengthOfIteration(parent);
+            int childLength = lengthOfIteration(child);
+            return parentLength < 0 || childLength < 0 ? -1 : parentLength + 1 + childLength;
+        }
+
+        @Override
+        int writeIteration(int[] numbers, int offset) {
+            offset = ((DataRecords) parent).writeIteration(numbers, offset);
+            numbers[offset++] = PARENT_ITERATION;
+            return ((DataRecords) child).writeIteration(numbers, offset);
+        }
+
         @Override
         public String toString() {
             return "[" + child + "," + parent + ']';
@@ -263,12 +376,29 @@ abstract class DataRecords implements DataRecordWrapper {
     }
 
     static class Parameter extends Parent {
+        private final FieldPath.Cache paths;
 
         Parameter(DataRecordWrapper dataRecord, Map<String, Object> parameters) {
-            super(wrapParameters(parameters), dataRecord);
+            this(dataRecord, wrapParameters(parameters), new FieldPath.Cache(parameters.keySet()));
+        }
+
+        /**
+         * @param parameters
+         *         parameters wrapped once by {@link #wrapParameters(Map)}
+         * @param paths
+         *         paths compiled for Test Step
+         */
+        Parameter(DataRecordWrapper dataRecord, DataRecordWrapper parameters, FieldPath.Cache paths) {
+            super(parameters, dataRecord);
+            this.paths = paths;
+        }
+
+        @Override
+        FieldPath path(String name) {
+            return paths.get(name);
         }
 
-        private static DataRecordWrapper wrapParameters(Map<String, Object> parameters) {
+        static DataRecordWrapper wrapParameters(Map<String, Object> parameters) {
             Map<String, Map<String, Object>> dataSources = groupByDataSourceName(parameters);
             DataRecordWrapper[] wrappers = FluentIterable.from(dataSources.entrySet())
                     .transform(new Function<Map.Entry<String, Map<String, Object>>, DataRecordWrapper>() {
@@ -313,21 +443,39 @@ abstract class DataRecords implements DataRecordWrapper {
 
     static class Binding extends DataRecords {
         private final DataRecordWrapper source;
-        private final Map<String, String> bindings;
-
-        Binding(DataRecordWrapper source, Map<String, String> bindings) {
+        private final Map<String, FieldPath> bindings;
+        private final FieldPath.Cache paths;
+
+        /**
+         * @param bindings
+         *         bindings compiled once by {@link #compileBindings(Map, FieldPath.Cache)}
+         * @param paths
+         *         paths compiled for Test Step
+         */
+        Binding(DataRecordWrapper source, Map<String, FieldPath> bindings, FieldPath.Cache paths) {
             super("bindings");
             this.source = source;
             this.bindings = bindings;
+            this.paths = paths;
         }
 
-        @Override
-        public <V> Optional<V> getFieldValue(String name, Class<V> type) {
-            if (bindings.containsKey(name)) {
-                name = bindings.get(name);
+        static Map<String, FieldPath> compileBindings(Map<String, String> bindings, FieldPath.Cache paths) {
+            Map<String, FieldPath> compiled = newHashMap();
+            for (Map.Entry<String, String> binding : bindings.entrySet()) {
+                compiled.put(binding.getKey(), paths.get(binding.getValue()));
             }
+            return compiled;
+        }
 
-            return source.getFieldValue(name, type);
+        @Override
+        FieldPath path(String name) {
+            return paths.get(name);
+        }
+
+        @Override
+        <V> V fieldValue(FieldPath path, Class<V> type) {
+            FieldPath bound = bindings.get(path.name);
+            return fieldValue(source, bound != null ? bound : path, type);
         }
 
         @Override
@@ -335,4 +483,29 @@ abstract class DataRecords implements DataRecordWrapper {
             return "0";
         }
     }
+
+    /**
+     * Test Step parameters and bindings prepared once per Test Step, so wrapping Data Record on each invocation only
+     * allocates {@link Parameter} and {@link Binding} wrappers. Field paths of parameter and binding names are compiled
+     * once here, other names looked up through these wrappers are compiled on first lookup
+     */
+    static class ParameterWrapper implements Function<DataRecordWrapper, DataRecordWrapper> {
+        final FieldPath.Cache paths;
+        private final DataRecordWrapper parameters;
+        private final Map<String, FieldPath> bindings;
+
+        ParameterWrapper(Map<String, Object> parameters, Map<String, String> bindings) {
+            this.paths = new FieldPath.Cache(Iterables.concat(parameters.keySet(), bindings.keySet(), bindings.values()));
+            this.parameters = parameters.isEmpty() ? null : Parameter.wrapParameters(parameters);
+            this.bindings = bindings.isEmpty() ? null : Binding.compileBindings(bindings, paths);
+        }
+
+        @Override
+        public DataRecordWrapper apply(DataRecordWrapper dataRecord) {
+            dataRecord = parameters == null ? dataRecord : new Parameter(dataRecord, parameters, paths);
+            dataRecord = bindings == null ? dataRecord : new Binding(dataRecord, bindings, paths);
+
+            return dataRecord;
+        }
+    }
 }
@@ -14,23 +14,30 @@ import static java.lang.String.format;
 
 import static com.ericsson.de.scenarios.impl.StackTraceFilter.filterFrameworkStackTrace;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
-import com.ericsson.de.scenarios.api.BasicDataRecord;
 import com.ericsson.de.scenarios.api.DataRecord;
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
 import com.ericsson.de.scenarios.api.DataSource;
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.io.Closeables;
 
 import rx.Observable;
 import rx.functions.Action1;
-import rx.schedulers.Schedulers;
+import rx.functions.Func0;
+import rx.functions.Func1;
 import rx.subjects.ReplaySubject;
 
 public abstract class DataSourceStrategy {
     public static final String ERROR_DATA_SOURCE_EMPTY = "Data Source `%s` did not produce any Data Records";
-    private static final DataRecord EMPTY = BasicDataRecord.builder().build();
+    private static final int DEFAULT_CAPACITY = 16;
 
     private final Observable<DataRecordWrapper> dataSource;
     private final String definition;
@@ -52,6 +59,24 @@ public abstract class DataSourceStrategy {
      */
     abstract Observable<DataRecordWrapper> forkFrom(Observable<DataRecordWrapper> parentDataRecords);
 
+    /**
+     * @return true if Data Records are distributed between vUsers of all parent executions
+     */
+    boolean isShared() {
+        return false;
+    }
+
+    /**
+     * @param repeat
+     *         true if Data Records should be handed out again after all of them are claimed
+     *
+     * @return Data Records which vUsers can claim concurrently, absent unless Data Source is single shared Data Source
+     * kept in memory
+     */
+    Optional<SharedDataRecords<DataRecordWrapper>> sharedDataRecords(boolean repeat) {
+        return Optional.absent();
+    }
+
     /**
      * @return copy if Data Source is mutable to avoid modification in real time
      */
@@ -80,40 +105,72 @@ public abstract class DataSourceStrategy {
     }
 
     static DataSourceStrategy fromDefinition(DataSource<DataRecord> definition, int vUsers) {
-        Observable<DataRecordWrapper> observable = provideObservable(definition);
+        KeptDataRecords<DataRecordWrapper> dataRecords = definition.isStreaming() ? null : keep(definition);
+        Observable<DataRecordWrapper> observable = provideObservable(definition, dataRecords);
 
-        return definition.isShared() ? new Shared(observable, definition.toString(), vUsers) : new Copied(observable, definition.toString(), vUsers);
+        return definition.isShared() ? new Shared(observable, definition.toString(), vUsers, dataRecords, definition.isCyclic())
+                : new Copied(observable, definition.toString(), vUsers);
     }
 
-    private static Observable<DataRecordWrapper> provideObservable(DataSource<DataRecord> definition) {
-        Observable<DataRecordWrapper> observable = Observable.from((Iterable<DataRecord>) definition).defaultIfEmpty(EMPTY)
-                .doOnNext(errorOnEmpty(definition.getName()))
-                .map(RxDataSource.wrapDataRecords(definition.getName(), definition.getDataRecordTransformer())).cache();
+    /**
+     * Data Records are kept in memory as they are read for the first time, so Data Source is iterated once and only as
+     * far as flows request (i.e. until `runWhile` predicate becomes false), while repeated subscriptions reuse
+     * Data Records already read
+     */
+    private static KeptDataRecords<DataRecordWrapper> keep(final DataSource<DataRecord> definition) {
+        return new KeptDataRecords<>(new Supplier<Iterator<DataRecordWrapper>>() {
+            @Override
+            public Iterator<DataRecordWrapper> get() {
+                return new DataRecordIterator(definition);
+            }
+        }, definition.getSizeHint().or(DEFAULT_CAPACITY));
+    }
 
-        if (definition.isCyclic()) {
-            observable = makeCyclic(observable);
+    /**
+     * Kept Data Records of cyclic Data Source are emitted by cursor which wraps around, so cycles don't need
+     * re-subscription. All Data Sources are emitted synchronously on subscribing thread with respect to backpressure,
+     * which lets {@link Multiple} zip infinite cyclic Data Sources with finite ones
+     *
+     * @param dataRecords
+     *         kept Data Records, or null if Data Source is streaming, in which case each subscription iterates Data
+     *         Source again
+     */
+    private static Observable<DataRecordWrapper> provideObservable(DataSource<DataRecord> definition,
+            KeptDataRecords<DataRecordWrapper> dataRecords) {
+        if (dataRecords == null) {
+            Observable<DataRecordWrapper> observable = read(definition);
+            return definition.isCyclic() ? observable.repeat() : observable;
         }
 
-        return observable;
-    }
-
-    private static Action1<? super DataRecord> errorOnEmpty(final String name) {
-        return new Action1<DataRecord>() {
-            @Override
-            public void call(DataRecord dataRecord) {
-                if (dataRecord == EMPTY) {
-                    throw filterFrameworkStackTrace(new IllegalArgumentException(format(ERROR_DATA_SOURCE_EMPTY, name)));
-                }
-            }
-        };
+        return definition.isCyclic() ? Observable.from(dataRecords.cycle()) : Observable.from(dataRecords);
     }
 
     /**
-     * Subscription should be done on separate thread to avoid deadlock in {@link RxDataSource#merge()} while
-     * calling {@link Observable#unsafeSubscribe} on multiple repeating observables
+     * Iterates Data Source on each subscription, iterator of Data Source is closed when subscriber unsubscribes
+     * (i.e. flow stops by `runWhile` before Data Source ends)
      */
-    private static <T> Observable<T> makeCyclic(Observable<T> observable) {
-        return observable.observeOn(Schedulers.computation()).repeat();
+    private static Observable<DataRecordWrapper> read(final DataSource<DataRecord> definition) {
+        return Observable.using(new Func0<DataRecordIterator>() {
+            @Override
+            public DataRecordIterator call() {
+                return new DataRecordIterator(definition);
+            }
+        }, new Func1<DataRecordIterator, Observable<DataRecordWrapper>>() {
+            @Override
+            public Observable<DataRecordWrapper> call(final DataRecordIterator iterator) {
+                return Observable.from(new Iterable<DataRecordWrapper>() {
+                    @Override
+                    public Iterator<DataRecordWrapper> iterator() {
+                        return iterator;
+                    }
+                });
+            }
+        }, new Action1<DataRecordIterator>() {
+            @Override
+            public void call(DataRecordIterator iterator) {
+                iterator.close();
+            }
+        });
     }
 
     static DataSourceStrategy empty(String name, int vUsers) {
@@ -151,11 +208,35 @@ public abstract class DataSourceStrategy {
 
             return Observable.zip(observables, RxDataSource.merge());
         }
+
+        @Override
+        boolean isShared() {
+            for (DataSourceStrategy strategy : strategies) {
+                if (strategy.isShared()) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     private static class Shared extends DataSourceStrategy {
-        Shared(Observable<DataRecordWrapper> dataSource, String definition, int vUsers) {
+        private final KeptDataRecords<DataRecordWrapper> dataRecords;
+        private final boolean cyclic;
+
+        Shared(Observable<DataRecordWrapper> dataSource, String definition, int vUsers, KeptDataRecords<DataRecordWrapper> dataRecords,
+                boolean cyclic) {
             super(dataSource, definition, vUsers);
+            this.dataRecords = dataRecords;
+            this.cyclic = cyclic;
+        }
+
+        @Override
+        Optional<SharedDataRecords<DataRecordWrapper>> sharedDataRecords(boolean repeat) {
+            if (dataRecords == null) {
+                return Optional.absent();
+            }
+            return Optional.of(new SharedDataRecords<>(dataRecords, cyclic || repeat));
         }
 
         @Override
@@ -169,6 +250,11 @@ public abstract class DataSourceStrategy {
 
             return Observable.zip(idealRepetitions.repeat(), getDataSource(), RxDataSource.glue());
         }
+
+        @Override
+        boolean isShared() {
+            return true;
+        }
     }
 
     private static class Copied extends DataSourceStrategy {
@@ -187,6 +273,54 @@ public abstract class DataSourceStrategy {
         }
     }
 
+    /**
+     * Wraps Data Records of Data Source, failing if Data Source is empty. Iterator of Data Source is closed (if it is
+     * {@link Closeable}) when it is exhausted, fails or is closed
+     */
+    private static final class DataRecordIterator extends AbstractIterator<DataRecordWrapper> implements Closeable {
+        private final String name;
+        private final Iterator<? extends DataRecord> source;
+        private final Func1<DataRecord, DataRecordWrapper> wrapper;
+        private boolean empty = true;
+        private boolean closed = false;
+
+        private DataRecordIterator(DataSource<DataRecord> definition) {
+            this.name = definition.getName();
+            this.source = definition.iterator();
+            this.wrapper = RxDataSource.wrapDataRecords(definition.getName(), definition.getDataRecordTransformer());
+        }
+
+        @Override
+        protected DataRecordWrapper computeNext() {
+            try {
+                if (source.hasNext()) {
+                    empty = false;
+                    return wrapper.call(source.next());
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            close();
+            if (empty) {
+                throw filterFrameworkStackTrace(new IllegalArgumentException(format(ERROR_DATA_SOURCE_EMPTY, name)));
+            }
+            return endOfData();
+        }
+
+        @Override
+        public void close() {
+            if (!closed && source instanceof Closeable) {
+                closed = true;
+                try {
+                    Closeables.close((Closeable) source, true);
+                } catch (IOException ignored) {
+                    // logged by Closeables
+                }
+            }
+        }
+    }
+
     static class Empty extends Copied {
 
         Empty(String name, int vUsers) {
@@ -8,10 +8,13 @@ import java.beans.Introspector;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.ericsson.de.scenarios.api.DataRecord;
 import com.ericsson.de.scenarios.api.DataRecordTransformer;
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
 
 /**
  * Creates Java Bean of given type from {@link DataRecord}.
@@ -54,8 +57,8 @@ public class DefaultDataRecordTransformer<T> implements DataRecordTransformer<T>
     public <U> U convert(String name, Object value, Class<U> targetType) {
         if (value == null) {
             return null;
-        } else if (targetType.isInstance(value)) {
-            return targetType.cast(value);
+        } else if (Primitives.wrap(targetType).isInstance(value)) {
+            return (U) value;
         } else if (value instanceof DataRecord && targetType.getInterfaces()[0] == DataRecord.class) {
             return (U) transform(DataRecord.class.cast(value), (Class<T>) targetType);
         } else {
@@ -68,6 +71,25 @@ public class DefaultDataRecordTransformer<T> implements DataRecordTransformer<T>
         }
     }
 
+    /**
+     * @return types of fields by name, as returned by getters of given Data Record interface
+     */
+    static Map<String, Class<?>> fieldTypes(Class<?> type) {
+        Map<String, Class<?>> fieldTypes = new LinkedHashMap<>();
+        if (type == DataRecord.class || !type.isInterface()) {
+            return fieldTypes;
+        }
+        for (Method method : type.getMethods()) {
+            Class<?> declaringClass = method.getDeclaringClass();
+            Class<?> returnType = method.getReturnType();
+            boolean getter = method.getName().startsWith("get") && !"getAllFields".equals(method.getName()) && method.getParameterTypes().length == 0;
+            if (getter && declaringClass != DataRecord.class && returnType != Void.TYPE && !DataRecord.class.isAssignableFrom(returnType)) {
+                fieldTypes.put(Introspector.decapitalize(method.getName().substring(3)), returnType);
+            }
+        }
+        return fieldTypes;
+    }
+
     @Override
     public boolean canTransformTo(Class type) {
         return type.isInterface();
@@ -0,0 +1,184 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static java.lang.String.format;
+
+import static com.ericsson.de.scenarios.impl.StackTraceFilter.filterListenerStackTrace;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+
+/**
+ * Delivers events to {@link Subscribe} methods of listeners, following the same rules as Guava {@code EventBus}
+ * (subscribers declared in superclasses, subscribing to event supertypes, {@link AllowConcurrentEvents}), but
+ * subscribers are resolved once per event type when listeners are registered, so posting an event does not use
+ * reflection. Use {@link #route(Class)} to check whether anyone listens before creating an event.
+ */
+class EventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+    static final String ERROR_SUBSCRIBER_PARAMETERS = "Method %s has @Subscribe annotation but has %s parameters. "
+            + "Subscriber methods must have exactly 1 parameter.";
+
+    private static final MethodType SUBSCRIBER_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final List<Subscriber> subscribers = newArrayList();
+    private final ConcurrentMap<Class<?>, Route> routes = new ConcurrentHashMap<>();
+
+    EventDispatcher(Iterable<?> listeners) {
+        for (Object listener : listeners) {
+            for (Method method : subscriberMethods(listener.getClass())) {
+                Subscriber subscriber = new Subscriber(listener, method);
+                if (!subscribers.contains(subscriber)) {
+                    subscribers.add(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return subscribers of events of given type (including subscribers of its supertypes)
+     */
+    Route route(Class<?> eventType) {
+        Route route = routes.get(eventType);
+        if (route == null) {
+            route = new Route(eventType, subscribers);
+            routes.putIfAbsent(eventType, route);
+        }
+        return route;
+    }
+
+    void post(Object event) {
+        route(event.getClass()).post(event);
+    }
+
+    private static Iterable<Method> subscriberMethods(Class<?> listenerClass) {
+        Map<List<Object>, Method> methods = new LinkedHashMap<>();
+        for (Class<?> type : TypeToken.of(listenerClass).getTypes().rawTypes()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Subscribe.class) && !method.isSynthetic()) {
+                    Class<?>[] parameterTypes = method.getParameterTypes();
+                    checkArgument(parameterTypes.length == 1, ERROR_SUBSCRIBER_PARAMETERS, method, parameterTypes.length);
+                    List<Object> signature = Arrays.<Object>asList(method.getName(), parameterTypes[0]);
+                    if (!methods.containsKey(signature)) {
+                        methods.put(signature, method);
+                    }
+                }
+            }
+        }
+        return methods.values();
+    }
+
+    /**
+     * Subscribers of single event type, in order Guava {@code EventBus} would call them: by distance of subscribed
+     * type from event type, then by registration order
+     */
+    static final class Route {
+
+        private final Subscriber[] subscribers;
+
+        private Route(Class<?> eventType, List<Subscriber> registered) {
+            List<Subscriber> matching = newArrayList();
+            for (Class<?> type : TypeToken.of(eventType).getTypes().rawTypes()) {
+                for (Subscriber subscriber : registered) {
+                    if (subscriber.eventType == type) {
+                        matching.add(subscriber);
+                    }
+                }
+            }
+            this.subscribers = matching.toArray(new Subscriber[matching.size()]);
+        }
+
+        boolean isEmpty() {
+            return subscribers.length == 0;
+        }
+
+        void post(Object event) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.invoke(event);
+            }
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final Object target;
+        private final Method method;
+        private final Class<?> eventType;
+        private final MethodHandle handle;
+        private final boolean concurrent;
+
+        private Subscriber(Object target, Method method) {
+            this.target = target;
+            this.method = method;
+            this.eventType = method.getParameterTypes()[0];
+            this.concurrent = method.isAnnotationPresent(AllowConcurrentEvents.class);
+            try {
+                method.setAccessible(true);
+                this.handle = MethodHandles.lookup().unreflect(method).bindTo(target).asType(SUBSCRIBER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(format("Unable to access subscriber method %s", method), e);
+            }
+        }
+
+        /**
+         * Exceptions of subscriber are logged, same as in Guava {@code EventBus} errors are rethrown
+         */
+        private void invoke(Object event) {
+            try {
+                if (concurrent) {
+                    handle.invokeExact(event);
+                } else {
+                    synchronized (this) {
+                        handle.invokeExact(event);
+                    }
+                }
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                logger.error("Exception thrown by ScenarioListener:", filterListenerStackTrace(e));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Subscriber)) {
+                return false;
+            }
+            Subscriber other = (Subscriber) o;
+            return target == other.target && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(target) * 31 + method.hashCode();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Field reference (i.e. `field`, `DataSourceName.field` or `DataSourceName.record.field`) split into segments once,
+ * so {@link DataRecords} can resolve it without parsing the name on every lookup.
+ *
+ * @see Cache
+ */
+final class FieldPath {
+
+    /**
+     * Full name of the field
+     */
+    final String name;
+
+    /**
+     * Name before first dot, equals to {@link #name} if there are no dots
+     */
+    final String head;
+
+    /**
+     * Path after first dot, or null if there are no dots
+     */
+    final FieldPath tail;
+
+    private FieldPath(String name) {
+        this.name = name;
+        int dot = name.indexOf('.');
+        if (dot < 0) {
+            this.head = name;
+            this.tail = null;
+        } else {
+            this.head = name.substring(0, dot);
+            this.tail = new FieldPath(name.substring(dot + 1));
+        }
+    }
+
+    static FieldPath of(String name) {
+        return new FieldPath(name);
+    }
+
+    boolean isSimple() {
+        return tail == null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Paths of one Test Step. Names known when Test Step is prepared (parameters and bindings) are compiled upfront,
+     * other names read by Test Step are compiled on first lookup. Field names used by Test Step are fixed in code, so
+     * cache lives as long as Test Step and lookups of known names don't allocate
+     */
+    static final class Cache {
+        private final Map<String, FieldPath> compiled;
+        private final ConcurrentMap<String, FieldPath> dynamic = new ConcurrentHashMap<>();
+
+        Cache(Iterable<String> names) {
+            Map<String, FieldPath> compiled = Maps.newHashMap();
+            for (String name : names) {
+                if (!compiled.containsKey(name)) {
+                    compiled.put(name, of(name));
+                }
+            }
+            this.compiled = compiled;
+        }
+
+        FieldPath get(String name) {
+            FieldPath path = compiled.get(name);
+            if (path != null) {
+                return path;
+            }
+            path = dynamic.get(name);
+            if (path == null) {
+                path = of(name);
+                FieldPath existing = dynamic.putIfAbsent(name, path);
+                if (existing != null) {
+                    path = existing;
+                }
+            }
+            return path;
+        }
+
+        int size() {
+            return compiled.size() + dynamic.size();
+        }
+    }
+}
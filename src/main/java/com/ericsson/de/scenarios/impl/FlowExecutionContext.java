@@ -10,7 +10,9 @@ import java.util.Iterator;
 import java.util.List;
 
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 
 import rx.Observable;
 import rx.functions.Func1;
@@ -19,6 +21,8 @@ public class FlowExecutionContext {
 
     final RxScenario scenario;
     final ScenarioEventBus eventBus;
+    final WorkerPool workerPool;
+    final boolean streamResults;
     private final RxExceptionHandler defaultExceptionHandler;
 
     final RxFlow rxFlow;
@@ -27,11 +31,13 @@ public class FlowExecutionContext {
     final DataRecordsToExecutions toExecutions;
     protected final Predicate<DataRecordWrapper> predicate;
 
-    private FlowExecutionContext(RxScenario scenario, ScenarioEventBus eventBus, RxExceptionHandler defaultExceptionHandler, RxFlow rxFlow,
-            int vUsers, final Observable<DataRecordWrapper> dataSource, DataRecordsToExecutions toExecutions,
-            Predicate<DataRecordWrapper> predicate) {
+    private FlowExecutionContext(RxScenario scenario, ScenarioEventBus eventBus, WorkerPool workerPool, boolean streamResults,
+            RxExceptionHandler defaultExceptionHandler, RxFlow rxFlow, int vUsers, final Observable<DataRecordWrapper> dataSource,
+            DataRecordsToExecutions toExecutions, Predicate<DataRecordWrapper> predicate) {
         this.scenario = scenario;
         this.eventBus = eventBus;
+        this.workerPool = workerPool;
+        this.streamResults = streamResults;
         this.defaultExceptionHandler = defaultExceptionHandler;
 
         this.rxFlow = rxFlow;
@@ -45,18 +51,27 @@ public class FlowExecutionContext {
     /**
      * Initial rxFlow which is created for scenario
      */
-    static FlowExecutionContext createScenarioFlowContext(RxScenario scenario, ScenarioEventBus eventBus,
+    static FlowExecutionContext createScenarioFlowContext(RxScenario scenario, ScenarioEventBus eventBus, WorkerPool workerPool,
             RxExceptionHandler defaultExceptionHandler) {
+        return createScenarioFlowContext(scenario, eventBus, workerPool, false, defaultExceptionHandler);
+    }
+
+    /**
+     * @param streamResults
+     *         if true, results of Test Steps are not kept in executions after they are passed to {@link ScenarioEventBus}
+     */
+    static FlowExecutionContext createScenarioFlowContext(RxScenario scenario, ScenarioEventBus eventBus, WorkerPool workerPool,
+            boolean streamResults, RxExceptionHandler defaultExceptionHandler) {
         RxFlow rxFlow = scenario.rxFlow;
         int vUsers = rxFlow.dataSource.vUsers;
         Observable<DataRecordWrapper> dataSource = rxFlow.dataSource.provide();
-        List<Internals.Exec> executions = singletonList(Internals.Exec.rootExec(scenario.parameters));
+        List<Internals.Exec> executions = singletonList(Internals.Exec.rootExec(scenario.parameters, !streamResults));
         DataRecordsToExecutions toExecutions = new DataRecordsToExecutions(rxFlow, executions, 0);
 
-        final Predicate<DataRecordWrapper> rxDataRecordWrapperPredicate = predicateOrDefault(rxFlow, dataSource);
+        final Predicate<DataRecordWrapper> rxDataRecordWrapperPredicate = predicateOrDefault(rxFlow);
 
-        return new FlowExecutionContext(scenario, eventBus, defaultExceptionHandler, rxFlow, vUsers, dataSource, toExecutions,
-                rxDataRecordWrapperPredicate);
+        return new FlowExecutionContext(scenario, eventBus, workerPool, streamResults, defaultExceptionHandler, rxFlow, vUsers, dataSource,
+                toExecutions, rxDataRecordWrapperPredicate);
     }
 
     /**
@@ -66,27 +81,29 @@ public class FlowExecutionContext {
         int vUsers = executions.size() * subRxFlow.dataSource.vUsers;
         Observable<DataRecordWrapper> subFlowDataSource = subRxFlow.dataSource.forkFrom(getDataRecords(executions));
         DataRecordsToExecutions dataRecordsToExecutions = new DataRecordsToExecutions(subRxFlow, executions, vUserOffset);
-        final Predicate<DataRecordWrapper> rxDataRecordWrapperPredicate = predicateOrDefault(subRxFlow, subFlowDataSource);
-        return new FlowExecutionContext(scenario, eventBus, defaultExceptionHandler, subRxFlow, vUsers, subFlowDataSource, dataRecordsToExecutions,
-                rxDataRecordWrapperPredicate);
+        final Predicate<DataRecordWrapper> rxDataRecordWrapperPredicate = predicateOrDefault(subRxFlow);
+        return new FlowExecutionContext(scenario, eventBus, workerPool, streamResults, defaultExceptionHandler, subRxFlow, vUsers,
+                subFlowDataSource, dataRecordsToExecutions, rxDataRecordWrapperPredicate);
     }
 
-    private static Predicate predicateOrDefault(RxFlow rxFlow, final Observable<DataRecordWrapper> dataSource) {
-        if (rxFlow.predicate == null) {
-            return new Predicate<DataRecordWrapper>() {
-                int dataIteration = 0;
-                final Integer dataRecordCount = dataSource.count().toBlocking().single();
+    private static Predicate predicateOrDefault(RxFlow rxFlow) {
+        return rxFlow.predicate == null ? Predicates.alwaysTrue() : rxFlow.predicate;
+    }
 
-                @Override
-                public boolean apply(DataRecordWrapper input) {
-                    dataIteration++;
-                    return dataIteration <= dataRecordCount;
-                }
-            };
-        } else {
-            return rxFlow.predicate;
-        }
+    /**
+     * @return Data Source repeated while predicate of flow is true, or single pass over Data Source if flow has no
+     * predicate, so it ends together with Data Source and does not need to be counted in advance
+     */
+    Observable<DataRecordWrapper> dataRecords() {
+        return rxFlow.predicate == null ? dataSource : dataSource.repeat();
+    }
 
+    /**
+     * @return Data Records which vUsers of flow can claim concurrently, repeated while predicate of flow is true
+     * @see DataSourceStrategy#sharedDataRecords(boolean)
+     */
+    Optional<SharedDataRecords<DataRecordWrapper>> sharedDataRecords() {
+        return rxFlow.dataSource.sharedDataRecords(rxFlow.predicate != null);
     }
 
     RxExceptionHandler exceptionHandler() {
@@ -139,5 +156,28 @@ public class FlowExecutionContext {
 
             return executions;
         }
+
+        /**
+         * Sequential allocation of {@link #call(List)} for Data Records which are not split to batches:
+         * each {@code forkCount} Data Records go to next parent execution
+         */
+        Func1<DataRecordWrapper, Integer> toParentIndex() {
+            return new Func1<DataRecordWrapper, Integer>() {
+                long dataRecordNo = 0;
+
+                @Override
+                public Integer call(DataRecordWrapper dataRecord) {
+                    return (int) (dataRecordNo++ % (parentExecutions.size() * forkCount) / forkCount);
+                }
+            };
+        }
+
+        Internals.Exec toExecution(int parentIndex, int childNo, DataRecordWrapper dataRecord) {
+            return parentExecutions.get(parentIndex).child(rxFlow.getName(), childNo + vUserOffset, dataRecord);
+        }
+
+        int vUsersPerParent() {
+            return forkCount;
+        }
     }
 }
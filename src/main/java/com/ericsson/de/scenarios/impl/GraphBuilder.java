@@ -101,16 +101,16 @@ class GraphBuilder {
     }
 
     private static ScenarioExecutionGraph.GraphNode createForkNode(Internals.Exec execution, Internals.FlowExecutionResult result) {
-        return GraphNodeFactory.createSubFlowNode(result.id, result.name, execution.dataRecord.toString(), execution.vUser.getId(), "", result.error);
+        return GraphNodeFactory.createSubFlowNode(result.getId(), result.name, execution.dataRecord.toString(), execution.vUser.getId(), "", result.error);
     }
 
     private static ScenarioExecutionGraph.TestStepNode createStepNode(Internals.Exec execution, Internals.TestStepResult result) {
-        return GraphNodeFactory.createTestStepNode(result.id, result.name, result.startTime, result.endTime, execution.dataRecord.toString(),
-                execution.vUser.getId(), "", result.status.name(), result.error);
+        return GraphNodeFactory.createTestStepNode(result.getId(), result.name, result.startTime, result.endTime, result.duration,
+                execution.dataRecord.toString(), execution.vUser.getId(), "", result.status.name(), result.error);
     }
 
     private static ScenarioExecutionGraph.GraphNode createJoinNode(ScenarioExecutionGraph.GraphNode forkNode, Internals.FlowExecutionResult result) {
-        return GraphNodeFactory.createFlowEndedNode(result.id, "join", forkNode.getDataRecord(), forkNode.getVUser(), "", forkNode.getException());
+        return GraphNodeFactory.createFlowEndedNode(result.getId(), "join", forkNode.getDataRecord(), forkNode.getVUser(), "", forkNode.getException());
     }
 
     private static void joinNodes(ScenarioExecutionGraph graph, List<ScenarioExecutionGraph.GraphNode> preJoinNodes,
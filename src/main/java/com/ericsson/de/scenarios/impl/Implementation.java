@@ -1,6 +1,7 @@
 package com.ericsson.de.scenarios.impl;
 
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfUnchecked;
@@ -10,61 +11,331 @@ import static rx.functions.Actions.empty;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+import com.ericsson.de.scenarios.api.AsyncTestStep;
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
 import com.ericsson.de.scenarios.api.TestStep;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 
 import rx.Observable;
 import rx.Observable.Operator;
 import rx.Scheduler;
 import rx.Subscriber;
+import rx.functions.Action0;
 import rx.functions.Action1;
 import rx.functions.Actions;
+import rx.functions.Func0;
 import rx.functions.Func1;
-import rx.schedulers.Schedulers;
+import rx.observables.GroupedObservable;
 import rx.subjects.BehaviorSubject;
 
 class Implementation {
 
     static Observable<Internals.FlowExecutionResult> runFlow(FlowExecutionContext context) {
+        if (context.rxFlow.continuousVUsers) {
+            return runFlowContinuously(context);
+        }
+
         BehaviorSubject<Object> noErrors = BehaviorSubject.create();
-        return context.dataSource.repeat().takeWhile(predicateIsTrue(context)).takeUntil(noErrors).buffer(context.vUsers).map(context.toExecutions)
+        return context.dataRecords().takeWhile(predicateIsTrue(context)).takeUntil(noErrors).buffer(context.vUsers).map(context.toExecutions)
                 .doOnNext(runBefore(context)).doOnNext(runChunksOfFlow(context)).lift(runAfter(context))
                 .doOnNext(processErrors(noErrors, context.exceptionHandler())).map(executorsToResult(context.rxFlow));
     }
 
-    static List<Internals.TestStepResult> runFlowPerformance(final FlowExecutionContext context, RxRampUp.StrategyProvider rampupProvider) {
+    /**
+     * Unlike batch execution each vUser takes next Data Record as soon as it finished previous one.
+     * Finished executions are grouped by vUser count, so results have the same structure as in batch execution
+     */
+    private static Observable<Internals.FlowExecutionResult> runFlowContinuously(FlowExecutionContext context) {
+        BehaviorSubject<Object> noErrors = BehaviorSubject.create();
+        return context.dataRecords().takeWhile(predicateIsTrue(context)).takeUntil(noErrors).groupBy(context.toExecutions.toParentIndex())
+                .flatMap(runContinuously(context, forEach(runBefore(context)))).doOnNext(forEach(processErrors(noErrors, context.exceptionHandler())))
+                .buffer(context.vUsers).lift(runAfter(context)).map(executorsToResult(context.rxFlow));
+    }
+
+    /**
+     * Runs whole flow for Data Records of one parent execution, each Data Record is taken by first vUser which is free
+     */
+    private static Func1<GroupedObservable<Integer, DataRecordWrapper>, Observable<Internals.Exec>> runContinuously(
+            final FlowExecutionContext context, final Action1<Internals.Exec> runBefore) {
+        final int vUsers = context.toExecutions.vUsersPerParent();
+        final Scheduler scheduler = context.workerPool.scheduler(context.vUsers);
+        return new Func1<GroupedObservable<Integer, DataRecordWrapper>, Observable<Internals.Exec>>() {
+            @Override
+            public Observable<Internals.Exec> call(final GroupedObservable<Integer, DataRecordWrapper> parentDataRecords) {
+                final Queue<Integer> freeVUsers =
+                        new PriorityBlockingQueue<>(ContiguousSet.create(Range.closed(1, vUsers), DiscreteDomain.integers()));
+                return parentDataRecords.flatMap(new Func1<DataRecordWrapper, Observable<Internals.Exec>>() {
+                    @Override
+                    public Observable<Internals.Exec> call(DataRecordWrapper dataRecord) {
+                        final Integer vUser = freeVUsers.remove();
+                        final Internals.Exec execution = context.toExecutions.toExecution(parentDataRecords.getKey(), vUser, dataRecord);
+                        runBefore.call(execution);
+
+                        return Observable.fromCallable(new Callable<Internals.Exec>() {
+                            @Override
+                            public Internals.Exec call() {
+                                runChunksOfFlow(context).call(singletonList(execution));
+                                return execution;
+                            }
+                        }).doOnTerminate(new Action0() {
+                            @Override
+                            public void call() {
+                                freeVUsers.add(vUser);
+                            }
+                        }).subscribeOn(scheduler);
+                    }
+                }, vUsers);
+            }
+        };
+    }
+
+    private static Action1<Internals.Exec> forEach(final Action1<List<Internals.Exec>> action) {
+        return new Action1<Internals.Exec>() {
+            @Override
+            public synchronized void call(Internals.Exec execution) {
+                action.call(singletonList(execution));
+            }
+        };
+    }
+
+    static ResultStore runFlowPerformance(final FlowExecutionContext context, RxRampUp.StrategyProvider rampupProvider,
+            RxRampUp.Statistics statistics) {
         final int vUsers = context.vUsers;
-        try (Internals.ClosableScheduler scheduler = getScheduler(vUsers)) {
+        final Internals.Exec exec = Internals.Exec.rootExec(Maps.<String, Object>newHashMap(), !context.streamResults);
+        Scheduler scheduler = context.workerPool.scheduler(vUsers);
 
-            final Internals.Exec exec = Internals.Exec.rootExec(Maps.<String, Object>newHashMap());
+        Func1<Internals.Exec, Observable<Internals.TestStepResult>> runIteration =
+                delayStart(context, runTestSteps(context, singleChunk(context.rxFlow), scheduler), statistics);
 
+        Observable<Internals.TestStepResult> testStepResults;
+        Optional<SharedDataRecords<DataRecordWrapper>> sharedDataRecords = context.sharedDataRecords();
+        if (sharedDataRecords.isPresent()) {
+            testStepResults = Observable.range(1, vUsers)
+                    .flatMap(claimDataRecords(context, sharedDataRecords.get(), exec, rampupProvider.provideFor(vUsers), runIteration), vUsers);
+        } else {
             BehaviorSubject<Object> noErrors = BehaviorSubject.create();
+            testStepResults = context.dataRecords().takeWhile(predicateIsTrue(context)).takeUntil(noErrors)
+                    .map(toExecution(context, vUsers, exec, rampupProvider)).flatMap(runIteration, vUsers);
+        }
+
+        ResultStore results = new ResultStore();
+        testStepResults.filter(retainResults(context)).toBlocking().forEach(storeTo(results));
+        return results;
+    }
+
+    /**
+     * Each vUser claims next Data Record of shared Data Source itself as soon as it finished previous iteration, so
+     * Data Records are not passed through single emitting thread. Predicate of flow is evaluated by one vUser at a time,
+     * once it is false or Data Records are exhausted all vUsers stop
+     */
+    private static Func1<Integer, Observable<Internals.TestStepResult>> claimDataRecords(final FlowExecutionContext context,
+            final SharedDataRecords<DataRecordWrapper> dataRecords, final Internals.Exec exec, final RxRampUp.Strategy rampUp,
+            final Func1<Internals.Exec, Observable<Internals.TestStepResult>> runIteration) {
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final AtomicLong startDelay = new AtomicLong();
+        final Func1<Object, Boolean> notStopped = new Func1<Object, Boolean>() {
+            @Override
+            public Boolean call(Object completion) {
+                return !stopped.get();
+            }
+        };
+        return new Func1<Integer, Observable<Internals.TestStepResult>>() {
+            @Override
+            public Observable<Internals.TestStepResult> call(final Integer vUser) {
+                final long delay = startDelay.getAndAdd(rampUp.nextVUserDelayDelta());
+                final AtomicBoolean started = new AtomicBoolean();
+                return Observable.defer(new Func0<Observable<Internals.TestStepResult>>() {
+                    @Override
+                    public Observable<Internals.TestStepResult> call() {
+                        DataRecordWrapper dataRecord = stopped.get() ? null : dataRecords.next();
+                        if (dataRecord == null || !predicateIsTrue(context, dataRecord)) {
+                            stopped.set(true);
+                            return Observable.empty();
+                        }
+
+                        Internals.Exec child = exec.child(context.rxFlow.getName(), vUser, dataRecord);
+                        if (!started.getAndSet(true)) {
+                            child.setDelay(delay);
+                        }
+                        return runIteration.call(child);
+                    }
+                }).repeatWhen(new Func1<Observable<? extends Void>, Observable<?>>() {
+                    @Override
+                    public Observable<?> call(Observable<? extends Void> completions) {
+                        return completions.takeWhile(notStopped);
+                    }
+                });
+            }
+        };
+    }
+
+    private static boolean predicateIsTrue(FlowExecutionContext context, DataRecordWrapper dataRecord) {
+        synchronized (context.predicate) {
+            return context.predicate.apply(dataRecord);
+        }
+    }
+
+    /**
+     * Schedules execution with Ramp Up delay on {@link WorkerPool#timer()}, so no worker thread is blocked while vUser
+     * is waiting for its start. Only vUsers after the first one are delayed, so {@code runTestSteps} always hands over
+     * to worker thread
+     */
+    private static Func1<Internals.Exec, Observable<Internals.TestStepResult>> delayStart(final FlowExecutionContext context,
+            final Func1<Internals.Exec, Observable<Internals.TestStepResult>> runTestSteps, final RxRampUp.Statistics statistics) {
+        return new Func1<Internals.Exec, Observable<Internals.TestStepResult>>() {
+            @Override
+            public Observable<Internals.TestStepResult> call(final Internals.Exec execution) {
+                if (execution.getDelay() == 0) {
+                    return runTestSteps.call(execution);
+                }
+
+                final long scheduledStart = System.nanoTime() + MILLISECONDS.toNanos(execution.getDelay());
+                execution.setIntendedStart(scheduledStart);
+                return Observable.defer(new Func0<Observable<Internals.TestStepResult>>() {
+                    @Override
+                    public Observable<Internals.TestStepResult> call() {
+                        statistics.delayedStart(System.nanoTime() - scheduledStart);
+                        return runTestSteps.call(execution);
+                    }
+                }).delaySubscription(execution.getDelay(), MILLISECONDS, context.workerPool.timer());
+            }
+        };
+    }
+
+    /**
+     * Open model: iterations are started according to {@code profile} regardless of completion of previous iterations.
+     * vUser count limits iterations in flight, if all vUsers are busy at scheduled time iteration is dropped.
+     * Test Step errors don't stop the load, same as in {@link #runFlowPerformance}
+     */
+    static ResultStore runFlowArrivalRate(final FlowExecutionContext context, RxArrivalRate.Profile profile,
+            RxArrivalRate.Statistics statistics) {
+        final int vUsers = context.vUsers;
+        final Internals.Exec exec = Internals.Exec.rootExec(Maps.<String, Object>newHashMap(), !context.streamResults);
+        final List<TestStep> testSteps = singleChunk(context.rxFlow);
+        final Scheduler scheduler = context.workerPool.scheduler();
+
+        final Semaphore inFlight = new Semaphore(vUsers);
+        final Queue<Integer> freeVUsers = new PriorityBlockingQueue<>(ContiguousSet.create(Range.closed(1, vUsers), DiscreteDomain.integers()));
+        final ResultStore results = new ResultStore();
+        final List<Throwable> errors = Collections.synchronizedList(Lists.<Throwable>newArrayList());
+
+        Iterator<DataRecordWrapper> dataRecords = context.dataRecords().toBlocking().getIterator();
+        RxArrivalRate.Schedule schedule = new RxArrivalRate.Schedule(profile);
+        long loadStart = System.nanoTime();
+        DataRecordWrapper dataRecord = null;
+
+        while (true) {
+            long nextStart = schedule.next();
+            if (nextStart == RxArrivalRate.Schedule.END) {
+                break;
+            }
+            long scheduledStart = loadStart + nextStart;
+            parkUntil(scheduledStart);
+
+            if (dataRecord == null) {
+                if (!dataRecords.hasNext()) {
+                    break;
+                }
+                dataRecord = dataRecords.next();
+                if (!context.predicate.apply(dataRecord)) {
+                    break;
+                }
+            }
+
+            if (!inFlight.tryAcquire()) {
+                statistics.dropped();
+                continue;
+            }
 
-            return context.dataSource.repeat().takeWhile(predicateIsTrue(context)).takeUntil(noErrors)
-                    .map(toExecution(context, vUsers, exec, rampupProvider))
-                    .flatMap(runTestSteps(context, singleChunk(context.rxFlow), scheduler.scheduler), vUsers).toList().toBlocking().single();
+            final Integer vUser = freeVUsers.remove();
+            Internals.Exec execution = exec.child(context.rxFlow.getName(), vUser, dataRecord);
+            execution.setIntendedStart(scheduledStart);
+            dataRecord = null;
+            statistics.started(System.nanoTime() - scheduledStart);
+
+            runTestSteps(context, testSteps, scheduler).call(execution).subscribe(new Subscriber<Internals.TestStepResult>() {
+                @Override
+                public void onNext(Internals.TestStepResult result) {
+                    if (!context.streamResults) {
+                        results.onResult(result);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable e) {
+                    errors.add(e);
+                    onCompleted();
+                }
+
+                @Override
+                public void onCompleted() {
+                    freeVUsers.add(vUser);
+                    inFlight.release();
+                }
+            });
+        }
+
+        inFlight.acquireUninterruptibly(vUsers);
+        if (!errors.isEmpty()) {
+            Throwable error = RxDataSource.compose(Sets.newLinkedHashSet(errors));
+            throwIfUnchecked(StackTraceFilter.filterFrameworkStackTrace(error));
+            throw StackTraceFilter.filterFrameworkStackTrace(new RuntimeException(error));
+        }
+        return results;
+    }
+
+    private static Action1<Internals.TestStepResult> storeTo(final ResultStore results) {
+        return new Action1<Internals.TestStepResult>() {
+            @Override
+            public void call(Internals.TestStepResult result) {
+                results.onResult(result);
+            }
+        };
+    }
+
+    private static Func1<Internals.TestStepResult, Boolean> retainResults(final FlowExecutionContext context) {
+        return new Func1<Internals.TestStepResult, Boolean>() {
+            @Override
+            public Boolean call(Internals.TestStepResult result) {
+                return !context.streamResults;
+            }
+        };
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
         }
     }
 
@@ -161,7 +432,7 @@ class Implementation {
         for (Internals.Exec exec : executions) {
             if (!first) {
                 beforeResult = Internals.TestStepResult
-                        .skipped(testStep, System.currentTimeMillis(), Internals.VUser.ROOT, dataRecord.getIteration());
+                        .skipped(testStep, System.currentTimeMillis(), System.nanoTime(), Internals.VUser.ROOT, dataRecord);
             }
             exec.addExecutedTestStep(beforeResult);
             first = false;
@@ -172,6 +443,11 @@ class Implementation {
         return new Action1<List<Internals.Exec>>() {
             @Override
             public void call(List<Internals.Exec> executions) {
+                if (context.rxFlow.pipelinedSubflows && executions.size() > 1) {
+                    runChunksPipelined(context, executions);
+                    return;
+                }
+
                 try (ExceptionAccumulator exceptionAccumulator = new ExceptionAccumulator()) {
                     context.rxFlow.chunks().doOnNext(runInParallel(context, executions)).doOnNext(fork(context, executions))
                             .subscribe(exceptionAccumulator);
@@ -180,19 +456,61 @@ class Implementation {
         };
     }
 
+    /**
+     * Each vUser runs chunks and forks on its own, without waiting for other vUsers.
+     * vUsers are synchronized only on forks which {@link Internals.Fork#requiresJoin()}
+     */
+    private static void runChunksPipelined(FlowExecutionContext context, List<Internals.Exec> executions) {
+        List<Internals.Chunk> stage = newArrayList();
+        for (Internals.Chunk chunk : context.rxFlow.chunks().toBlocking().toIterable()) {
+            stage.add(chunk);
+            if (chunk.fork != null && chunk.fork.requiresJoin()) {
+                runStageInParallel(context, executions, stage);
+                fork(context, executions).call(chunk);
+                stage = newArrayList();
+            }
+        }
+        runStageInParallel(context, executions, stage);
+    }
+
+    private static void runStageInParallel(final FlowExecutionContext context, List<Internals.Exec> executions, final List<Internals.Chunk> stage) {
+        int vUsers = executions.size();
+        final Scheduler scheduler = context.workerPool.scheduler(vUsers);
+        try (ExceptionAccumulator exceptionAccumulator = new ExceptionAccumulator()) {
+            Observable.from(executions).flatMap(new Func1<Internals.Exec, Observable<Internals.Exec>>() {
+                @Override
+                public Observable<Internals.Exec> call(final Internals.Exec execution) {
+                    return Observable.fromCallable(new Callable<Internals.Exec>() {
+                        @Override
+                        public Internals.Exec call() {
+                            List<Internals.Exec> vUser = singletonList(execution);
+                            for (Internals.Chunk chunk : stage) {
+                                runInParallel(context, vUser).call(chunk);
+                                if (chunk.fork != null && !chunk.fork.requiresJoin()) {
+                                    fork(context, vUser).call(chunk);
+                                }
+                            }
+                            return execution;
+                        }
+                    }).subscribeOn(scheduler);
+                }
+            }, vUsers).toBlocking().subscribe(exceptionAccumulator);
+        }
+    }
+
     /**
      * Runs Test Steps of {@code chunk} in parallel by multiple {@code executions} (vUsers)
      * Waits until execution is finished
-     * Because each Test Step runner has its own executor, it will run in parallel
+     * vUsers are run on shared {@link WorkerPool}, parallelism is limited by count of {@code executions}
      */
     static Action1<Internals.Chunk> runInParallel(final FlowExecutionContext context, final List<Internals.Exec> executions) {
         return new Action1<Internals.Chunk>() {
             @Override
             public void call(Internals.Chunk chunk) {
                 int vUsers = executions.size();
-                try (Internals.ClosableScheduler scheduler = getScheduler(vUsers);
-                        ExceptionAccumulator exceptionAccumulator = new ExceptionAccumulator()) {
-                    Observable.from(executions).flatMap(runTestSteps(context, chunk.testSteps, scheduler.scheduler), vUsers).toBlocking()
+                Scheduler scheduler = context.workerPool.scheduler(vUsers);
+                try (ExceptionAccumulator exceptionAccumulator = new ExceptionAccumulator()) {
+                    Observable.from(executions).flatMap(runTestSteps(context, chunk.testSteps, scheduler), vUsers).toBlocking()
                             .subscribe(exceptionAccumulator);
                 }
             }
@@ -202,18 +520,29 @@ class Implementation {
     /**
      * Runs {@code testSteps} in thread provided by {@code scheduler} for given vUser ({@code execution})
      * If {@code execution} is broken will execute only alwaysRun Test Steps
+     * Test Steps are chained one after another, so {@link AsyncTestStep} releases thread while waiting for result.
+     * Following Test Steps are returned to worker thread, so they don't block thread which completed async Test Step
+     * (i.e. I/O thread of protocol client)
      */
     private static Func1<Internals.Exec, Observable<Internals.TestStepResult>> runTestSteps(final FlowExecutionContext context,
             final List<TestStep> testSteps, final Scheduler scheduler) {
         return new Func1<Internals.Exec, Observable<Internals.TestStepResult>>() {
             @Override
             public Observable<Internals.TestStepResult> call(final Internals.Exec execution) {
-                return Observable.from(testSteps).filter(new Func1<TestStep, Boolean>() {
+                final Func1<TestStep, Internals.TestStepResult> runTestStep = runTestStep(context, execution);
+                return Observable.from(testSteps).concatMap(new Func1<TestStep, Observable<Internals.TestStepResult>>() {
                     @Override
-                    public Boolean call(TestStep testStep) {
-                        return !execution.isFailed() || testStep.isAlwaysRun();
+                    public Observable<Internals.TestStepResult> call(TestStep testStep) {
+                        if (execution.isFailed() && !testStep.isAlwaysRun()) {
+                            return Observable.empty();
+                        }
+                        if (testStep instanceof AsyncTestStep) {
+                            return runAsyncTestStep(context, AsyncTestStep.class.cast(testStep), execution)
+                                    .observeOn(context.workerPool.scheduler());
+                        }
+                        return Observable.just(runTestStep.call(testStep));
                     }
-                }).doOnNext(sleep(execution.getDelay())).map(runTestStep(context, execution)).doOnNext(new Action1<Internals.TestStepResult>() {
+                }).doOnNext(new Action1<Internals.TestStepResult>() {
                     @Override
                     public void call(Internals.TestStepResult result) {
                         execution.addExecutedTestStep(result);
@@ -223,24 +552,6 @@ class Implementation {
         };
     }
 
-    /**
-     * {@link Observable#delay(long, java.util.concurrent.TimeUnit)} runs stuff on different scheduler
-     * {@link Observable#delay(long, java.util.concurrent.TimeUnit, Scheduler scheduler)} do non blocking schedule
-     * To actually delay execution use this method
-     */
-    private static Action1<? super Object> sleep(final long delay) {
-        return new Action1<Object>() {
-            @Override
-            public void call(Object o) {
-                try {
-                    Thread.sleep(delay);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        };
-    }
-
     /**
      * Run single testStep
      */
@@ -249,7 +560,9 @@ class Implementation {
             @Override
             public Internals.TestStepResult call(TestStep testStep) {
                 context.eventBus.testStepStarted(testStep, execution);
+                long startLateness = execution.startLateness(System.nanoTime());
                 Internals.TestStepResult result = runTestStep(context, testStep, execution.vUser, execution.getDataRecordAndContext());
+                result.startedLate(startLateness);
                 context.eventBus.testStepFinished(testStep, execution, result);
                 return result;
             }
@@ -259,17 +572,53 @@ class Implementation {
     private static Internals.TestStepResult runTestStep(FlowExecutionContext context, TestStep testStep, Internals.VUser vUser,
             DataRecordWrapper dataRecord) {
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         try {
             Optional<Object> returnedValue = testStep.run(dataRecord);
-            return Internals.TestStepResult.success(testStep, startTime, returnedValue.orNull(), vUser, dataRecord.getIteration());
+            return Internals.TestStepResult.success(testStep, startTime, startNanos, returnedValue.orNull(), vUser, dataRecord);
         } catch (Throwable e) {
-            return context.exceptionHandler().canHandle(e) ?
-                    Internals.TestStepResult.skipped(testStep, startTime, vUser, dataRecord.getIteration()) :
-                    Internals.TestStepResult
-                            .failure(testStep, startTime, StackTraceFilter.filterTestwareStackTrace(e), vUser, dataRecord.getIteration());
+            return failedTestStep(context, testStep, startTime, startNanos, e, vUser, dataRecord);
         }
     }
 
+    /**
+     * Run single {@link AsyncTestStep} without blocking, result is emitted when Test Step completes
+     */
+    private static Observable<Internals.TestStepResult> runAsyncTestStep(final FlowExecutionContext context, final AsyncTestStep testStep,
+            final Internals.Exec execution) {
+        context.eventBus.testStepStarted(testStep, execution);
+        final long startLateness = execution.startLateness(System.nanoTime());
+        final long startTime = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        final DataRecordWrapper dataRecord = execution.getDataRecordAndContext();
+
+        return testStep.runAsync(dataRecord).map(new Func1<Optional<Object>, Internals.TestStepResult>() {
+            @Override
+            public Internals.TestStepResult call(Optional<Object> returnedValue) {
+                return Internals.TestStepResult.success(testStep, startTime, startNanos, returnedValue.orNull(), execution.vUser, dataRecord);
+            }
+        }).onErrorReturn(new Func1<Throwable, Internals.TestStepResult>() {
+            @Override
+            public Internals.TestStepResult call(Throwable e) {
+                return failedTestStep(context, testStep, startTime, startNanos, e, execution.vUser, dataRecord);
+            }
+        }).doOnNext(new Action1<Internals.TestStepResult>() {
+            @Override
+            public void call(Internals.TestStepResult result) {
+                result.startedLate(startLateness);
+                context.eventBus.testStepFinished(testStep, execution, result);
+            }
+        });
+    }
+
+    private static Internals.TestStepResult failedTestStep(FlowExecutionContext context, TestStep testStep, long startTime, long startNanos,
+            Throwable e, Internals.VUser vUser, DataRecordWrapper dataRecord) {
+        return context.exceptionHandler().canHandle(e) ?
+                Internals.TestStepResult.skipped(testStep, startTime, startNanos, vUser, dataRecord) :
+                Internals.TestStepResult
+                        .failure(testStep, startTime, startNanos, StackTraceFilter.filterTestwareStackTrace(e), vUser, dataRecord);
+    }
+
     /**
      * If {@code chunk} contains subflow create and subscribe to observable that will execute subflow
      * If there are multiple flows in fork (i.e. main rxFlow splits to two different subflow1 and subflow2) run them
@@ -283,11 +632,11 @@ class Implementation {
 
                 if (chunk.fork != null && (chunk.fork.alwaysRun || !validExecutions.isEmpty())) {
                     List<Internals.Exec> executionsToRun = chunk.fork.alwaysRun ? executions : validExecutions;
-                    try (Internals.ClosableScheduler scheduler = getScheduler(chunk.fork.flows.size());
-                            ExceptionAccumulator exceptionAccumulator = new ExceptionAccumulator(attachResultsToParents(context))) {
+                    Scheduler scheduler = context.workerPool.scheduler(chunk.fork.flows.size());
+                    try (ExceptionAccumulator exceptionAccumulator = new ExceptionAccumulator(attachResultsToParents(context))) {
                         AtomicInteger vUserOffset = new AtomicInteger();
 
-                        Observable.from(chunk.fork.flows).flatMap(subflowToObservable(context, executionsToRun, scheduler.scheduler, vUserOffset))
+                        Observable.from(chunk.fork.flows).flatMap(subflowToObservable(context, executionsToRun, scheduler, vUserOffset))
                                 .toList().toBlocking().subscribe(exceptionAccumulator);
                     }
                 }
@@ -425,15 +774,6 @@ class Implementation {
         }));
     }
 
-    private static Internals.ClosableScheduler getScheduler(int size) {
-        if (size == 1) {
-            return new Internals.ClosableScheduler(Schedulers.immediate());
-        } else {
-            ExecutorService executor = Executors.newFixedThreadPool(size);
-            return new Internals.ThreadPoolScheduler(Schedulers.from(executor), executor);
-        }
-    }
-
     private static <T> T first(Iterable<T> iterable) {
         Iterator<T> iterator = iterable.iterator();
         checkArgument(iterator.hasNext());
@@ -12,7 +12,8 @@ package com.ericsson.de.scenarios.impl;
  */
 
 import static java.util.Arrays.copyOf;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Optional.fromNullable;
@@ -25,7 +26,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
 
 import com.ericsson.de.scenarios.api.BasicDataRecord;
 import com.ericsson.de.scenarios.api.DataRecord;
@@ -36,8 +36,6 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.primitives.Ints;
 
-import rx.Scheduler;
-
 class Internals {
 
     static final String STORE_V_USERS_IN_CONTEXT = "scenario.debug.context.vusers.enabled";
@@ -136,10 +134,29 @@ class Internals {
             alwaysRun = true;
             return this;
         }
+
+        /**
+         * @return true if subflows should be started for all parent vUsers at once, because they or their nested subflows
+         * share Data Records or state between parent vUsers
+         */
+        boolean requiresJoin() {
+            for (RxFlow flow : flows) {
+                if (flow.dataSource.isShared() || !flow.getBefore().isEmpty() || !flow.getAfter().isEmpty() || flow.predicate != null) {
+                    return true;
+                }
+                for (Invocation invocation : flow.testSteps) {
+                    if (invocation instanceof Fork && ((Fork) invocation).requiresJoin()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
     }
 
     /**
      * Represents Execution of one vUser / one DataRecord in scope of one {@link Chunk} rxFlow
+     * If results are not retained (streaming mode) only errors and time frame of executed Test Steps are kept
      */
     static class Exec {
         final InternalScenarioContext context;
@@ -149,15 +166,26 @@ class Internals {
         final DataRecordWrapper dataRecord;
 
         final List<Throwable> errors = newArrayList();
+        private final boolean retainResults;
         private final List<TestStepResult> executedTestSteps = newArrayList();
+        private long startTime = Long.MAX_VALUE;
+        private long endTime = 0;
         private long delay = 0;
+        private boolean scheduled = false;
+        private long intendedStart;
+        private long startLateness = -1;
 
         Exec(String flowPath, VUser vUser, InternalScenarioContext context, Exec parent, DataRecordWrapper dataRecord) {
+            this(flowPath, vUser, context, parent, dataRecord, true);
+        }
+
+        Exec(String flowPath, VUser vUser, InternalScenarioContext context, Exec parent, DataRecordWrapper dataRecord, boolean retainResults) {
             this.flowPath = flowPath;
             this.vUser = vUser;
             this.context = context;
             this.dataRecord = dataRecord;
             this.parent = parent;
+            this.retainResults = retainResults;
 
             if (context.storeVUsers()) {
                 context.setFieldValue("vUser", vUser);
@@ -165,19 +193,23 @@ class Internals {
         }
 
         static Exec rootExec(Map<String, Object> parameters) {
+            return rootExec(parameters, true);
+        }
+
+        static Exec rootExec(Map<String, Object> parameters, boolean retainResults) {
             InternalScenarioContext context = new InternalScenarioContext(parameters);
-            return new Exec("", VUser.ROOT, context, null, null);
+            return new Exec("", VUser.ROOT, context, null, null, retainResults);
         }
 
         Exec child(String flowName, int childNo, DataRecordWrapper dataRecord) {
             String subFlowName = flowPath.isEmpty() ? flowName : flowPath + "." + flowName;
             VUser childVUser = vUser.child(childNo);
             InternalScenarioContext childContext = context.child();
-            return new Exec(subFlowName, childVUser, childContext, this, dataRecord);
+            return new Exec(subFlowName, childVUser, childContext, this, dataRecord, retainResults);
         }
 
         Exec copy() {
-            return new Exec(flowPath, vUser, context, parent, dataRecord);
+            return new Exec(flowPath, vUser, context, parent, dataRecord, retainResults);
         }
 
         boolean isFailed() {
@@ -190,7 +222,11 @@ class Internals {
         }
 
         void addExecutedTestStep(TestStepResult testStepResult) {
-            executedTestSteps.add(testStepResult);
+            if (retainResults) {
+                executedTestSteps.add(testStepResult);
+            }
+            startTime = Math.min(startTime, testStepResult.startTime);
+            endTime = Math.max(endTime, testStepResult.endTime);
 
             if (testStepResult.getReturnedValue().isPresent()) {
                 context.parseValues(testStepResult.name, testStepResult.getReturnedValue().get());
@@ -205,6 +241,14 @@ class Internals {
             return executedTestSteps;
         }
 
+        long getStartTime() {
+            return startTime;
+        }
+
+        long getEndTime() {
+            return endTime;
+        }
+
         DataRecordWrapper getDataRecordAndContext() {
             return context.wrapDataRecord(dataRecord);
         }
@@ -216,6 +260,26 @@ class Internals {
         public long getDelay() {
             return delay;
         }
+
+        /**
+         * @param intendedStart {@link System#nanoTime()} when iteration should start according to Ramp Up or arrival rate
+         */
+        void setIntendedStart(long intendedStart) {
+            this.intendedStart = intendedStart;
+            this.scheduled = true;
+        }
+
+        /**
+         * Called before each Test Step of iteration, first call fixes actual start of iteration
+         *
+         * @return nanoseconds between intended and actual start of iteration, 0 if iteration was not scheduled
+         */
+        long startLateness(long now) {
+            if (startLateness < 0) {
+                startLateness = scheduled ? Math.max(now - intendedStart, 0) : 0;
+            }
+            return startLateness;
+        }
     }
 
     static class InternalScenarioContext {
@@ -266,35 +330,71 @@ class Internals {
         }
     }
 
-    static class TestStepResult {
-        final String id;
+    /**
+     * Identifier is kept as primitives (Test Step id, vUser tokens, iteration numbers) and rendered only when requested,
+     * see {@link #getId()}, so results don't keep Data Records and scenario context alive. Duration is measured with {@link System#nanoTime()}, start time is wall clock anchor and
+     * end time is derived from both, so it never goes backwards.
+     */
+    static class TestStepResult implements RxTestStepResult {
+        /**
+         * {@link #stepId} of Test Step which is not part of built scenario
+         */
+        static final long NO_STEP_ID = -1;
+
+        private final long stepId;
+        private final VUser vUser;
+        private final int[] iteration;
+        private String id;
         final String name;
         final long startTime;
         final long endTime;
+        final long duration;
+        private long responseTime;
         final private Object returnedValue;
         final Throwable error;
         final TestStep.Status status;
 
-        static TestStepResult success(TestStep testStep, long startTime, Object returnedValue, VUser vUser, String iteration) {
-            return new TestStepResult(id("step", testStep.getId(), vUser, iteration), testStep.getName(), startTime, System.currentTimeMillis(),
+        /**
+         * @param startTime wall clock start time in milliseconds
+         * @param startNanos {@link System#nanoTime()} at start
+         */
+        static TestStepResult success(TestStep testStep, long startTime, long startNanos, Object returnedValue, VUser vUser,
+                DataRecordWrapper dataRecord) {
+            return new TestStepResult(stepId(testStep), vUser, dataRecord, testStep.getName(), startTime, System.nanoTime() - startNanos,
                     returnedValue, null, TestStep.Status.SUCCESS);
         }
 
-        static TestStepResult failure(TestStep testStep, long startTime, Throwable error, VUser vUser, String iteration) {
-            return new TestStepResult(id("step", testStep.getId(), vUser, iteration), testStep.getName(), startTime, System.currentTimeMillis(), null,
-                    error, TestStep.Status.FAILED);
+        static TestStepResult failure(TestStep testStep, long startTime, long startNanos, Throwable error, VUser vUser, DataRecordWrapper dataRecord) {
+            return new TestStepResult(stepId(testStep), vUser, dataRecord, testStep.getName(), startTime, System.nanoTime() - startNanos, null, error,
+                    TestStep.Status.FAILED);
         }
 
-        static TestStepResult skipped(TestStep testStep, long startTime, VUser vUser, String iteration) {
-            return new TestStepResult(id("step", testStep.getId(), vUser, iteration), testStep.getName(), startTime, System.currentTimeMillis(), null,
-                    null, TestStep.Status.SKIPPED);
+        static TestStepResult skipped(TestStep testStep, long startTime, long startNanos, VUser vUser, DataRecordWrapper dataRecord) {
+            return new TestStepResult(stepId(testStep), vUser, dataRecord, testStep.getName(), startTime, System.nanoTime() - startNanos, null, null,
+                    TestStep.Status.SKIPPED);
         }
 
         TestStepResult(String id, String name, long startTime, long endTime, Object returnedValue, Throwable error, TestStep.Status status) {
+            this(NO_STEP_ID, null, null, name, startTime, MILLISECONDS.toNanos(endTime - startTime), returnedValue, error, status);
             this.id = id;
+        }
+
+        /**
+         * @param duration in nanoseconds
+         */
+        TestStepResult(long stepId, VUser vUser, DataRecordWrapper dataRecord, String name, long startTime, long duration, Object returnedValue,
+                Throwable error, TestStep.Status status) {
+            this.stepId = stepId;
+            this.vUser = vUser;
+            this.iteration = dataRecord == null ? null : DataRecords.iterationNumbers(dataRecord);
+            if (dataRecord != null && iteration == null) {
+                this.id = id("step", stepIdOrNull(), vUser, dataRecord.getIteration());
+            }
             this.name = name;
             this.startTime = startTime;
-            this.endTime = endTime;
+            this.endTime = startTime + NANOSECONDS.toMillis(duration);
+            this.duration = duration;
+            this.responseTime = duration;
             this.returnedValue = returnedValue;
             this.error = error;
             this.status = status;
@@ -304,6 +404,28 @@ class Internals {
             return String.format("%s%d-%s-%s", type, id, vUser, iteration);
         }
 
+        String renderId() {
+            return id("step", stepIdOrNull(), vUser, DataRecords.renderIteration(iteration));
+        }
+
+        private static long stepId(TestStep testStep) {
+            Long id = testStep.getId();
+            return id == null ? NO_STEP_ID : id;
+        }
+
+        private Long stepIdOrNull() {
+            return stepId == NO_STEP_ID ? null : stepId;
+        }
+
+        /**
+         * Corrects response time for coordinated omission, called by engine before result is published
+         *
+         * @param startLateness see {@link Exec#startLateness(long)}
+         */
+        void startedLate(long startLateness) {
+            responseTime = duration + startLateness;
+        }
+
         boolean isFailed() {
             return error != null;
         }
@@ -312,9 +434,56 @@ class Internals {
             return fromNullable(returnedValue);
         }
 
+        /**
+         * Rendering is idempotent, so concurrent callers may render id more than once but always get the same value
+         */
+        @Override
+        public String getId() {
+            if (id == null) {
+                id = renderId();
+            }
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public TestStep.Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
+
+        @Override
+        public long getDuration() {
+            return duration;
+        }
+
+        @Override
+        public long getResponseTime() {
+            return responseTime;
+        }
+
+        @Override
+        public Throwable getError() {
+            return error;
+        }
+
     }
 
     static class FlowExecutionResult extends TestStepResult {
+        private final Long flowId;
         final RxFlow rxFlow;
         final List<Exec> executions = newArrayList();
 
@@ -327,19 +496,21 @@ class Internals {
         }
 
         private FlowExecutionResult(Long id, String name, RxFlow rxFlow, Collection<Exec> executions) {
-            super(flowId(id, executions), name, RxDataSource.startTime(executions), RxDataSource.endTime(executions), null, getError(executions),
+            super(NO_STEP_ID, null, null, name, RxDataSource.startTime(executions),
+                    MILLISECONDS.toNanos(RxDataSource.endTime(executions) - RxDataSource.startTime(executions)), null, getError(executions),
                     TestStep.Status.SUCCESS);
+            this.flowId = id;
             this.rxFlow = rxFlow;
             this.executions.addAll(executions);
         }
 
-        private static String flowId(Long id, Collection<Exec> executions) {
+        @Override
+        String renderId() {
             StringBuilder result = new StringBuilder("fork");
             for (Exec execution : executions) {
-                result.append(id("", id, execution.vUser, execution.dataRecord.getIteration()));
+                result.append(id("", flowId, execution.vUser, execution.dataRecord.getIteration()));
             }
             return result.toString();
-
         }
 
         private static Throwable getError(Collection<Exec> executions) {
@@ -352,7 +523,7 @@ class Internals {
 
         @Override
         public String toString() {
-            return toStringHelper(this).add("id", id).add("name", name).add("rxFlow", rxFlow).toString();
+            return toStringHelper(this).add("id", getId()).add("name", name).add("rxFlow", rxFlow).toString();
         }
     }
 
@@ -361,6 +532,7 @@ class Internals {
         static final VUser ROOT = new VUser();
 
         private final int[] tokens;
+        private String id;
 
         private VUser(int... numbers) {
             tokens = numbers;
@@ -377,7 +549,10 @@ class Internals {
         }
 
         public String getId() {
-            return Joiner.on(".").join(Ints.asList(tokens));
+            if (id == null) {
+                id = Joiner.on(".").join(Ints.asList(tokens));
+            }
+            return id;
         }
 
         @Override
@@ -400,40 +575,4 @@ class Internals {
             return Arrays.hashCode(tokens);
         }
     }
-
-    static class ClosableScheduler implements AutoCloseable {
-        final Scheduler scheduler;
-
-        ClosableScheduler(Scheduler scheduler) {
-            this.scheduler = scheduler;
-        }
-
-        @Override
-        public void close() {
-            // do nothing
-        }
-    }
-
-    static class ThreadPoolScheduler extends ClosableScheduler {
-        private ExecutorService executor;
-
-        ThreadPoolScheduler(Scheduler from, ExecutorService executor) {
-            super(from);
-            this.executor = executor;
-        }
-
-        @Override
-        public void close() {
-            try {
-                executor.shutdown();
-
-                boolean successful = executor.awaitTermination(30, SECONDS);
-                if (!successful) {
-                    executor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-    }
 }
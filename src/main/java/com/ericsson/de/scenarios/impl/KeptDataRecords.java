@@ -0,0 +1,148 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * Data Records of Data Source kept in memory while they are read. Source is opened on first request and read only as
+ * far as Data Records are requested, so subscriptions that stop early (i.e. flow with `runWhile`) don't read the rest
+ * of Data Source. Data Records already read are returned by index without locking, so any number of subscriptions
+ * and vUsers can use them concurrently.
+ */
+class KeptDataRecords<T> implements Iterable<T> {
+
+    private final Supplier<? extends Iterator<T>> source;
+    private Iterator<T> iterator;
+    private RuntimeException failure;
+    private volatile Object[] records;
+    private volatile int count;
+    private volatile boolean complete;
+
+    KeptDataRecords(Supplier<? extends Iterator<T>> source, int capacity) {
+        this.source = source;
+        this.records = new Object[Math.max(capacity, 1)];
+    }
+
+    private KeptDataRecords(List<T> records) {
+        this.source = null;
+        this.records = records.toArray();
+        this.count = this.records.length;
+        this.complete = true;
+    }
+
+    static <T> KeptDataRecords<T> of(List<T> records) {
+        return new KeptDataRecords<>(records);
+    }
+
+    /**
+     * @return Data Record at {@code index}, reading Data Source up to it if needed, or null if Data Source has less
+     * Data Records
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (index < count) {
+            return (T) records[index];
+        }
+        if (complete) {
+            return null;
+        }
+        return readUpTo(index);
+    }
+
+    /**
+     * @return count of Data Records, reading Data Source till the end
+     */
+    int size() {
+        if (!complete) {
+            readUpTo(Integer.MAX_VALUE);
+        }
+        return count;
+    }
+
+    /**
+     * @return iterator over Data Records
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Cursor(false);
+    }
+
+    /**
+     * @return Data Records repeated infinitely, each iterator only has its own cursor over Data Records kept once
+     */
+    Iterable<T> cycle() {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new Cursor(true);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized T readUpTo(int index) {
+        if (failure != null) {
+            throw failure;
+        }
+        try {
+            if (iterator == null && !complete) {
+                iterator = source.get();
+            }
+            while (count <= index && !complete) {
+                if (iterator.hasNext()) {
+                    add(iterator.next());
+                } else {
+                    complete = true;
+                    iterator = null;
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        }
+        return index < count ? (T) records[index] : null;
+    }
+
+    private void add(T record) {
+        Object[] current = records;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            records = current;
+        }
+        current[count] = record;
+        count = count + 1;
+    }
+
+    private class Cursor extends AbstractIterator<T> {
+        private final boolean cyclic;
+        private int index = 0;
+
+        private Cursor(boolean cyclic) {
+            this.cyclic = cyclic;
+        }
+
+        @Override
+        protected T computeNext() {
+            T record = get(index++);
+            if (record == null && cyclic && index > 1) {
+                index = 0;
+                record = get(index++);
+            }
+            return record != null ? record : endOfData();
+        }
+    }
+}
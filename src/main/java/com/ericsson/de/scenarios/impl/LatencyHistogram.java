@@ -0,0 +1,139 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Constant memory histogram of latencies with high dynamic range (HDR-style log-linear buckets). Values from zero to
+ * {@link Long#MAX_VALUE} nanoseconds are recorded with relative error below 1%, memory does not depend on count of
+ * recorded values. Recording is thread safe, histograms can be merged with {@link #add(LatencyHistogram)}.
+ */
+public class LatencyHistogram {
+
+    static final String ERROR_PERCENTILE_RANGE = "Percentile should be in range 0..100";
+
+    /**
+     * Each power of two range is split to {@code 2^SUB_BUCKET_BITS} linear buckets
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value latency in nanoseconds, negative values are recorded as zero
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        counts.incrementAndGet(index(recorded));
+        count.incrementAndGet();
+        sum.addAndGet(recorded);
+        updateMin(recorded);
+        updateMax(recorded);
+    }
+
+    /**
+     * Adds all values recorded in {@code other} to this histogram
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = other.counts.get(i);
+            if (bucketCount > 0) {
+                counts.addAndGet(i, bucketCount);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        updateMin(other.min.get());
+        updateMax(other.max.get());
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return minimal recorded value or 0 if histogram is empty
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMean() {
+        long samples = getCount();
+        return samples == 0 ? 0 : sum.get() / samples;
+    }
+
+    /**
+     * @return value below or equal to which {@code percentile} of recorded values fall, or 0 if histogram is empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, ERROR_PERCENTILE_RANGE);
+        long samples = getCount();
+        if (samples == 0) {
+            return 0;
+        }
+
+        long rank = Math.max((long) Math.ceil(percentile / 100 * samples), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.max(Math.min(highestEquivalentValue(i), getMax()), getMin());
+            }
+        }
+        return getMax();
+    }
+
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index - shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private void updateMin(long value) {
+        long current;
+        do {
+            current = min.get();
+        } while (value < current && !min.compareAndSet(current, value));
+    }
+
+    private void updateMax(long value) {
+        long current;
+        do {
+            current = max.get();
+        } while (value > current && !max.compareAndSet(current, value));
+    }
+}
@@ -9,6 +9,7 @@ import com.google.common.base.Predicate;
 
 public class PerformanceFlowBuilder extends RxFlowBuilder<Flow> {
     private RxRampUp.StrategyProvider rampUp = RxRampUp.allAtOnce();
+    private RxArrivalRate.Profile arrivalRate;
 
     protected PerformanceFlowBuilder(String name) {
         super(name);
@@ -32,4 +33,18 @@ public class PerformanceFlowBuilder extends RxFlowBuilder<Flow> {
     public void withRampUp(RxRampUp.StrategyProvider rampUp) {
         this.rampUp = rampUp;
     }
+
+    public RxArrivalRate.Profile getArrivalRate() {
+        return arrivalRate;
+    }
+
+    /**
+     * Switches flow to open model: iterations are started according to {@code arrivalRate} regardless of how long
+     * previous iterations take. vUsers of the flow limit count of iterations in flight, Ramp Up is not applied.
+     *
+     * @see RxArrivalRate
+     */
+    public void withArrivalRate(RxArrivalRate.Profile arrivalRate) {
+        this.arrivalRate = arrivalRate;
+    }
 }
@@ -6,56 +6,51 @@ import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
-import static com.google.common.collect.Iterables.getLast;
-
-import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.ArrayListMultimap;
-
 public class PerformanceReporter {
     private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceReporter.class);
 
     String summary(String name, List<Internals.TestStepResult> testStepResults) {
-        ArrayListMultimap<String, Internals.TestStepResult> resultsByStep = ArrayListMultimap.create();
-
-        long startTime = Long.MAX_VALUE;
-        long endTime = 0;
-        float successes = 0;
-        float failures = 0;
-
+        PerformanceStatistics statistics = new PerformanceStatistics(name);
         for (Internals.TestStepResult result : testStepResults) {
-            resultsByStep.put(result.id, result);
-
-            if (result.startTime < startTime) {
-                startTime = result.startTime;
-            }
-            if (result.endTime > endTime) {
-                endTime = result.endTime;
-            }
+            statistics.onResult(result);
+        }
+        return summary(statistics);
+    }
 
-            if (result.isFailed()) {
-                failures++;
-            } else {
-                successes++;
-            }
+    String summary(String name, ResultStore results) {
+        PerformanceStatistics statistics = new PerformanceStatistics(name);
+        for (int i = 0; i < results.size(); i++) {
+            statistics.record(results.stepName(results.step(i)), results.startTime(i), results.endTime(i), results.duration(i), results.responseTime(i),
+                    results.status(i));
         }
+        return summary(statistics);
+    }
 
+    public String summary(PerformanceStatistics statistics) {
+        PerformanceStatistics.Step total = statistics.getTotal();
         StringBuilder builder = new StringBuilder();
 
         builder.append("\n===============================================================================");
-        builder.append("\nRxScenario: ").append(name);
-        builder.append(format("%nTest duration: %s", toHumanReadableDuration(endTime - startTime)));
-        builder.append(format("%nSamples count: %.0f, %.2f%% (%.0f) failures", successes, failures / (successes == 0 ? 1 : successes), failures));
+        builder.append("\nRxScenario: ").append(statistics.getName());
+        builder.append(format("%nTest duration: %s", toHumanReadableDuration(MILLISECONDS.toNanos(statistics.getDuration()))));
+        builder.append(format(Locale.ROOT, "%nSamples count: %d, %.2f%% (%d) failures, %.2f samples/s", total.getServiceTime().getCount(),
+                total.getErrorRate() * 100, total.getErrors(), statistics.getThroughput(total)));
         builder.append("\nStats by Test Step: ");
 
-        appendTestStepResults(resultsByStep, builder);
+        for (Map.Entry<String, PerformanceStatistics.Step> entry : statistics.getSteps().entrySet()) {
+            appendStep(builder, statistics, entry.getKey(), entry.getValue());
+        }
         builder.append("\n");
 
         LOGGER.info(builder.toString());
@@ -63,40 +58,39 @@ public class PerformanceReporter {
         return builder.toString();
     }
 
-    private void appendTestStepResults(final ArrayListMultimap<String, Internals.TestStepResult> resultsByStep, final StringBuilder builder) {
-        for (Collection<Internals.TestStepResult> stepResults : resultsByStep.asMap().values()) {
-            long timeSum = 0;
-            long min = Long.MAX_VALUE;
-            long max = 0;
-
-            for (Internals.TestStepResult result : stepResults) {
-                timeSum += (result.endTime - result.startTime);
-                long duration = result.endTime - result.startTime;
-
-                if (duration < min) {
-                    min = duration;
-                }
-                if (duration > max) {
-                    max = duration;
-                }
-            }
+    private void appendStep(StringBuilder builder, PerformanceStatistics statistics, String name, PerformanceStatistics.Step step) {
+        builder.append(format(Locale.ROOT, "%n  Name: %s, Samples: %d, Errors: %.2f%%, Throughput: %.2f/s", name, step.getServiceTime().getCount(),
+                step.getErrorRate() * 100, statistics.getThroughput(step)));
+        appendHistogram(builder, "Service time", step.getServiceTime());
+        appendHistogram(builder, "Response time", step.getResponseTime());
+    }
 
-            builder.append(format("%n  Name: %s, Samples: %s, Min: %s, Max: %s, Avg: %s", getLast(stepResults).name, stepResults.size(),
-                    toHumanReadableDuration(min), toHumanReadableDuration(max), toHumanReadableDuration(timeSum / stepResults.size())));
-        }
+    /**
+     * Service time is measured from actual start of Test Step, response time also includes delay of iteration start
+     * against schedule (coordinated omission)
+     */
+    private void appendHistogram(StringBuilder builder, String name, LatencyHistogram histogram) {
+        builder.append(format("%n    %s: Min: %s, Avg: %s, p50: %s, p90: %s, p99: %s, p99.9: %s, Max: %s", name,
+                toHumanReadableDuration(histogram.getMin()), toHumanReadableDuration(histogram.getMean()),
+                toHumanReadableDuration(histogram.getValueAtPercentile(50)), toHumanReadableDuration(histogram.getValueAtPercentile(90)),
+                toHumanReadableDuration(histogram.getValueAtPercentile(99)), toHumanReadableDuration(histogram.getValueAtPercentile(99.9)),
+                toHumanReadableDuration(histogram.getMax())));
     }
 
-    private String toHumanReadableDuration(final long millis) {
+    /**
+     * @param nanos duration in nanoseconds, rendered with microsecond precision
+     */
+    private String toHumanReadableDuration(final long nanos) {
 
         final StringBuilder builder = new StringBuilder();
-        long acc = millis;
+        long acc = nanos;
         for (final TimeUnit timeUnit : asList(DAYS, HOURS, MINUTES, SECONDS)) {
-            final long convert = timeUnit.convert(acc, MILLISECONDS);
+            final long convert = timeUnit.convert(acc, NANOSECONDS);
             if (timeUnit.equals(SECONDS)) {
-                builder.append(format("%.3fs", (float) acc / 1000));
+                builder.append(format(Locale.ROOT, "%.6fs", (double) acc / SECONDS.toNanos(1)));
             } else if (convert > 0) {
                 builder.append(convert).append(timeUnit.name().toLowerCase().charAt(0)).append(" ");
-                acc -= MILLISECONDS.convert(convert, timeUnit);
+                acc -= NANOSECONDS.convert(convert, timeUnit);
             }
         }
         builder.setLength(builder.length() - 1);
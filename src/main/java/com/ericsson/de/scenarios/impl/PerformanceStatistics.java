@@ -0,0 +1,168 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ericsson.de.scenarios.api.TestStep;
+
+/**
+ * Latency histograms of flow and its Test Steps, recorded while results arrive, so memory does not grow with
+ * duration of the run. Statistics of different flows or runs can be combined with {@link #merge(PerformanceStatistics)}.
+ *
+ * @see PerformanceReporter#summary(PerformanceStatistics)
+ */
+public class PerformanceStatistics implements RxResultSink {
+
+    private final String name;
+    private final Step total = new Step();
+    private final ConcurrentMap<String, Step> steps = new ConcurrentSkipListMap<>();
+    private final AtomicLong startTime = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong endTime = new AtomicLong();
+
+    public PerformanceStatistics(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void onResult(RxTestStepResult result) {
+        record(result.getName(), result.getStartTime(), result.getEndTime(), result.getDuration(), result.getResponseTime(), result.getStatus());
+    }
+
+    @Override
+    public void onFinished() {
+    }
+
+    void record(String stepName, long start, long end, long duration, long responseTime, TestStep.Status status) {
+        boolean failed = status == TestStep.Status.FAILED;
+        total.record(duration, responseTime, failed);
+        step(stepName).record(duration, responseTime, failed);
+        updateTimeFrame(start, end);
+    }
+
+    /**
+     * Adds all samples of {@code other} to this statistics
+     */
+    public void merge(PerformanceStatistics other) {
+        total.merge(other.total);
+        for (Map.Entry<String, Step> entry : other.steps.entrySet()) {
+            step(entry.getKey()).merge(entry.getValue());
+        }
+        updateTimeFrame(other.startTime.get(), other.endTime.get());
+    }
+
+    private Step step(String stepName) {
+        Step step = steps.get(stepName);
+        if (step == null) {
+            Step created = new Step();
+            step = steps.putIfAbsent(stepName, created);
+            if (step == null) {
+                step = created;
+            }
+        }
+        return step;
+    }
+
+    private void updateTimeFrame(long start, long end) {
+        long current;
+        do {
+            current = startTime.get();
+        } while (start < current && !startTime.compareAndSet(current, start));
+        do {
+            current = endTime.get();
+        } while (end > current && !endTime.compareAndSet(current, end));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return statistics of all Test Steps together
+     */
+    public Step getTotal() {
+        return total;
+    }
+
+    /**
+     * @return statistics by Test Step name, sorted by name
+     */
+    public Map<String, Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return time between first Test Step start and last Test Step end in milliseconds
+     */
+    public long getDuration() {
+        long start = startTime.get();
+        long end = endTime.get();
+        return end > start ? end - start : 0;
+    }
+
+    /**
+     * @return samples per second over {@link #getDuration()}
+     */
+    public double getThroughput(Step step) {
+        long duration = getDuration();
+        return duration == 0 ? 0 : step.getServiceTime().getCount() * 1000.0 / duration;
+    }
+
+    public static class Step {
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long duration, long correctedDuration, boolean failed) {
+            serviceTime.record(duration);
+            responseTime.record(correctedDuration);
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void merge(Step other) {
+            serviceTime.add(other.serviceTime);
+            responseTime.add(other.responseTime);
+            errors.addAndGet(other.errors.get());
+        }
+
+        /**
+         * @return histogram of Test Step durations in nanoseconds
+         */
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        /**
+         * @return histogram of durations corrected for late iteration starts in nanoseconds,
+         * see {@link RxTestStepResult#getResponseTime()}
+         */
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * @return share of failed samples, 0..1
+         */
+        public double getErrorRate() {
+            long samples = serviceTime.getCount();
+            return samples == 0 ? 0 : (double) errors.get() / samples;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ericsson.de.scenarios.impl;
+
+import com.ericsson.de.scenarios.api.events.ScenarioEvent;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Passes Test Step results from {@link ScenarioEventBus} to {@link RxResultSink}
+ */
+@SuppressWarnings("unused")
+public class ResultSinkListener implements RxScenarioListener {
+
+    private final RxResultSink sink;
+
+    public ResultSinkListener(RxResultSink sink) {
+        this.sink = sink;
+    }
+
+    @Subscribe
+    public void onTestStepFinished(ScenarioEventBus.InternalTestStepFinishedEvent event) {
+        sink.onResult(event.getResult());
+    }
+
+    @Subscribe
+    public void onScenarioFinished(ScenarioEvent.ScenarioFinishedEvent event) {
+        sink.onFinished();
+    }
+
+    /**
+     * Passes results to thread safe sink (i.e. {@link PerformanceStatistics}) from vUser threads concurrently
+     */
+    static class Concurrent extends ResultSinkListener {
+
+        Concurrent(RxResultSink sink) {
+            super(sink);
+        }
+
+        @Override
+        @Subscribe
+        @AllowConcurrentEvents
+        public void onTestStepFinished(ScenarioEventBus.InternalTestStepFinishedEvent event) {
+            super.onTestStepFinished(event);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ericsson.de.scenarios.api.TestStep;
+
+/**
+ * Compact storage of Test Step results for performance runs. Instead of one object per invocation, results are kept in
+ * primitive columns (step, start time, duration, response time, status) split into fixed size chunks, so growing the store never
+ * copies already collected samples. Test Step names are interned and referenced by index.
+ * <p>
+ * Results may be added concurrently; reading is expected after the run is finished.
+ */
+public class ResultStore implements RxResultSink {
+
+    static final int CHUNK_SIZE = 8192;
+
+    private static final TestStep.Status[] STATUSES = TestStep.Status.values();
+
+    private final Map<String, Integer> stepIndex = newHashMap();
+    private final List<String> stepNames = newArrayList();
+
+    private final List<int[]> steps = newArrayList();
+    private final List<long[]> startTimes = newArrayList();
+    private final List<long[]> durations = newArrayList();
+    private final List<long[]> responseTimes = newArrayList();
+    private final List<byte[]> statuses = newArrayList();
+    private int size = 0;
+
+    /**
+     * @param startTime in milliseconds
+     * @param duration in nanoseconds
+     * @param responseTime in nanoseconds, see {@link RxTestStepResult#getResponseTime()}
+     */
+    public synchronized void add(String name, long startTime, long duration, long responseTime, TestStep.Status status) {
+        int chunk = size / CHUNK_SIZE;
+        int offset = size % CHUNK_SIZE;
+        if (offset == 0) {
+            steps.add(new int[CHUNK_SIZE]);
+            startTimes.add(new long[CHUNK_SIZE]);
+            durations.add(new long[CHUNK_SIZE]);
+            responseTimes.add(new long[CHUNK_SIZE]);
+            statuses.add(new byte[CHUNK_SIZE]);
+        }
+
+        steps.get(chunk)[offset] = intern(name);
+        startTimes.get(chunk)[offset] = startTime;
+        durations.get(chunk)[offset] = duration;
+        responseTimes.get(chunk)[offset] = responseTime;
+        statuses.get(chunk)[offset] = (byte) status.ordinal();
+        size++;
+    }
+
+    private int intern(String name) {
+        Integer index = stepIndex.get(name);
+        if (index == null) {
+            index = stepNames.size();
+            stepIndex.put(name, index);
+            stepNames.add(name);
+        }
+        return index;
+    }
+
+    @Override
+    public void onResult(RxTestStepResult result) {
+        add(result.getName(), result.getStartTime(), result.getDuration(), result.getResponseTime(), result.getStatus());
+    }
+
+    @Override
+    public void onFinished() {
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return count of distinct Test Steps
+     */
+    public synchronized int stepCount() {
+        return stepNames.size();
+    }
+
+    public synchronized String stepName(int step) {
+        return stepNames.get(step);
+    }
+
+    /**
+     * @return index of Test Step of {@code i}-th result, see {@link #stepName(int)}
+     */
+    public int step(int i) {
+        return steps.get(i / CHUNK_SIZE)[i % CHUNK_SIZE];
+    }
+
+    public long startTime(int i) {
+        return startTimes.get(i / CHUNK_SIZE)[i % CHUNK_SIZE];
+    }
+
+    /**
+     * @return end time in milliseconds
+     */
+    public long endTime(int i) {
+        return startTime(i) + NANOSECONDS.toMillis(duration(i));
+    }
+
+    /**
+     * @return duration in nanoseconds
+     */
+    public long duration(int i) {
+        return durations.get(i / CHUNK_SIZE)[i % CHUNK_SIZE];
+    }
+
+    /**
+     * @return response time in nanoseconds
+     */
+    public long responseTime(int i) {
+        return responseTimes.get(i / CHUNK_SIZE)[i % CHUNK_SIZE];
+    }
+
+    public TestStep.Status status(int i) {
+        return STATUSES[statuses.get(i / CHUNK_SIZE)[i % CHUNK_SIZE]];
+    }
+
+    public boolean isFailed(int i) {
+        return status(i) == TestStep.Status.FAILED;
+    }
+}
@@ -6,6 +6,8 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -21,9 +23,13 @@ import com.google.common.collect.Iterators;
  */
 public abstract class RxApi {
 
+    static final int CONSISTENCY_CHECK_LIMIT = 10_000;
+
     /**
      * Creates Data Source based on Iterable contents.
-     * Iterable may contain any type which could be injected using `@Input("dataSourceName") Type name`
+     * Iterable may contain any type which could be injected using `@Input("dataSourceName") Type name`.
+     * Iterable which is not a {@link Collection} is iterated twice (up to {@value #CONSISTENCY_CHECK_LIMIT} records,
+     * so it may be infinite) to check that it produces consistent records
      *
      * @param name
      *         name of the Data Source
@@ -34,11 +40,16 @@ public abstract class RxApi {
      */
     public static <T> DataSource<T> fromIterable(final String name, final Iterable<T> iterable) {
         checkArgument(iterable.iterator().hasNext(), "Iterable should not be empty!");
-        checkArgument(Iterators.size(iterable.iterator()) == Iterators.size(iterable.iterator()), "Iterable should produce consistent records!");
+        checkArgument(iterable instanceof Collection || checkedSize(iterable) == checkedSize(iterable),
+                "Iterable should produce consistent records!");
 
         return new RxObjectDataSource<>(name, iterable);
     }
 
+    private static int checkedSize(Iterable<?> iterable) {
+        return Iterators.size(Iterators.limit(iterable.iterator(), CONSISTENCY_CHECK_LIMIT));
+    }
+
     /**
      * Creates Data Source from Data Records
      *
@@ -55,19 +66,46 @@ public abstract class RxApi {
     }
 
     /**
-     * Creates Data Source from CSV
+     * Creates Data Source from CSV. Rows are read on demand each time Data Source is iterated, so file is not
+     * loaded to memory. CSV Data Source is {@link DataSource#streaming()}: flows read the file again each time they
+     * need its Data Records instead of keeping them, so files of any size use constant memory
      *
      * @param name
      *         name of the Data Source
      * @param location
-     *         csv location path
+     *         csv location path, either file system path or classpath resource, gzipped if it ends with {@code .csv.gz}
      * @param dataRecordType
      *         data source type
      *
      * @return data source definition with defined type
      */
     public static <T extends DataRecord> DataSource<T> fromCsv(final String name, String location, Class<T> dataRecordType) {
-        return new RxIterableDataSource<>(name, dataRecordType, CsvReader.read(location));
+        return fromCsv(name, location, dataRecordType, DefaultDataRecordTransformer.fieldTypes(dataRecordType));
+    }
+
+    /**
+     * Creates Data Source from CSV with typed columns. Values are converted once when row is read,
+     * column which can't be converted is reported with its row.
+     * {@link #fromCsv(String, String, Class)} takes column types from getters of {@code dataRecordType}
+     *
+     * @param columnTypes
+     *         types of columns by header name, columns which are not listed stay strings
+     */
+    public static <T extends DataRecord> DataSource<T> fromCsv(final String name, String location, Class<T> dataRecordType,
+            Map<String, Class<?>> columnTypes) {
+        return RxCsvDataSource.open(name, dataRecordType, location, columnTypes, 1);
+    }
+
+    /**
+     * Creates Data Source from large CSV file, which is memory mapped and parsed by {@code parallelism} threads.
+     * Records are provided in file order, unless Data Source is {@link DataSource#shared()}, in which case
+     * they are provided as soon as they are parsed. Quoted values must not contain line breaks.
+     * Gzipped files and classpath resources are parsed by single thread
+     *
+     * @see #fromCsv(String, String, Class)
+     */
+    public static <T extends DataRecord> DataSource<T> fromCsv(final String name, String location, Class<T> dataRecordType, int parallelism) {
+        return RxCsvDataSource.open(name, dataRecordType, location, DefaultDataRecordTransformer.fieldTypes(dataRecordType), parallelism);
     }
 
     /**
@@ -0,0 +1,203 @@
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ *  The copyright to the computer program(s) herein is the property of
+ *  Ericsson Inc. The programs may be used and/or copied only with written
+ *  permission from Ericsson Inc. or in accordance with the terms and
+ *  conditions stipulated in the agreement/contract under which the
+ *  program(s) have been supplied.
+ */
+
+package com.ericsson.de.scenarios.impl;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open model load profiles: iterations are started at defined rate regardless of how long previous iterations take.
+ * Count of iterations running at the same time is limited by vUsers of the flow, if all vUsers are busy when
+ * next iteration should start, iteration is dropped.
+ *
+ * @see PerformanceFlowBuilder#withArrivalRate(Profile)
+ */
+public class RxArrivalRate {
+
+    static final String ERROR_RATE_NOT_POSITIVE = "Arrival rate should be greater than zero";
+    static final String ERROR_PERIOD_NOT_POSITIVE = "Time period should be greater than zero";
+    static final String ERROR_STEP_NEGATIVE = "Arrival rate step should not be negative";
+
+    /**
+     * Iteration started later than that after scheduled time is reported as late
+     */
+    static final long LATE_START_TOLERANCE_NANOS = NANOSECONDS.convert(10, TimeUnit.MILLISECONDS);
+
+    /**
+     * @return Profile which starts {@code iterations} per {@code perTimeUnit}. For example `constant(10, SECONDS)` will start
+     * new iteration each 100 milliseconds.
+     */
+    public static Profile constant(final long iterations, final TimeUnit perTimeUnit) {
+        final double rate = perSecond(iterations, perTimeUnit);
+        return new Profile() {
+            @Override
+            public double iterationsPerSecond(long elapsedNanos) {
+                return rate;
+            }
+        };
+    }
+
+    /**
+     * @return Profile which linearly changes rate from {@code fromIterations} to {@code toIterations} per {@code perTimeUnit}
+     * during {@code rampTime}, and keeps last rate after that
+     */
+    public static Profile ramping(final long fromIterations, final long toIterations, final TimeUnit perTimeUnit, final long rampTime,
+            final TimeUnit unit) {
+        final double from = perSecond(fromIterations, perTimeUnit);
+        final double to = perSecond(toIterations, perTimeUnit);
+        final long rampNanos = NANOSECONDS.convert(rampTime, unit);
+        checkArgument(rampNanos > 0, ERROR_PERIOD_NOT_POSITIVE);
+
+        return new Profile() {
+            @Override
+            public double iterationsPerSecond(long elapsedNanos) {
+                if (elapsedNanos >= rampNanos) {
+                    return to;
+                }
+                return from + (to - from) * elapsedNanos / rampNanos;
+            }
+        };
+    }
+
+    /**
+     * @return Profile which starts with {@code fromIterations} per {@code perTimeUnit} and increases rate by
+     * {@code stepIterations} every {@code stepTime}. For example `stepped(10, 5, SECONDS, 1, MINUTES)` will start 10
+     * iterations per second during first minute, 15 during second minute etc.
+     */
+    public static Profile stepped(final long fromIterations, final long stepIterations, final TimeUnit perTimeUnit, final long stepTime,
+            final TimeUnit unit) {
+        final double from = perSecond(fromIterations, perTimeUnit);
+        final double step = (double) stepIterations * SECONDS.toNanos(1) / perTimeUnit.toNanos(1);
+        final long stepNanos = NANOSECONDS.convert(stepTime, unit);
+        checkArgument(stepIterations >= 0, ERROR_STEP_NEGATIVE);
+        checkArgument(stepNanos > 0, ERROR_PERIOD_NOT_POSITIVE);
+
+        return new Profile() {
+            @Override
+            public double iterationsPerSecond(long elapsedNanos) {
+                return from + step * (elapsedNanos / stepNanos);
+            }
+        };
+    }
+
+    private static double perSecond(long iterations, TimeUnit perTimeUnit) {
+        checkNotNull(perTimeUnit);
+        checkArgument(iterations > 0, ERROR_RATE_NOT_POSITIVE);
+        return (double) iterations * SECONDS.toNanos(1) / perTimeUnit.toNanos(1);
+    }
+
+    public interface Profile {
+        /**
+         * @return target rate of iteration starts after {@code elapsedNanos} since load started. Rate which is not
+         * greater than zero ends the load: no more iterations are started
+         */
+        double iterationsPerSecond(long elapsedNanos);
+    }
+
+    /**
+     * Calculates start times of iterations for {@link Profile}
+     */
+    static class Schedule {
+
+        /**
+         * Returned by {@link #next()} when {@link Profile} rate dropped to zero and no more iterations should start
+         */
+        static final long END = -1;
+
+        private final Profile profile;
+        private long nextStart = 0;
+
+        Schedule(Profile profile) {
+            this.profile = profile;
+        }
+
+        /**
+         * @return time of next iteration start in nanoseconds since load started, or {@link #END} if rate is not
+         * greater than zero
+         */
+        long next() {
+            long start = nextStart;
+            double rate = profile.iterationsPerSecond(start);
+            if (!(rate > 0)) {
+                return END;
+            }
+            nextStart = start + Math.max((long) (SECONDS.toNanos(1) / rate), 1);
+            return start;
+        }
+    }
+
+    /**
+     * Counters of iteration starts in arrival rate mode
+     */
+    public static class Statistics {
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong late = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong maxLateness = new AtomicLong();
+
+        void started(long latenessNanos) {
+            started.incrementAndGet();
+            if (latenessNanos > LATE_START_TOLERANCE_NANOS) {
+                late.incrementAndGet();
+            }
+
+            long max;
+            do {
+                max = maxLateness.get();
+            } while (latenessNanos > max && !maxLateness.compareAndSet(max, latenessNanos));
+        }
+
+        void dropped() {
+            dropped.incrementAndGet();
+        }
+
+        /**
+         * @return count of started iterations
+         */
+        public long getStarted() {
+            return started.get();
+        }
+
+        /**
+         * @return count of iterations, which were started later than scheduled
+         */
+        public long getLate() {
+            return late.get();
+        }
+
+        /**
+         * @return count of iterations, which were not started because all vUsers were busy
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * @return maximal delay of iteration start comparing to schedule
+         */
+        public long getMaxLateness(TimeUnit unit) {
+            return unit.convert(maxLateness.get(), NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this).add("started", started).add("late", late).add("dropped", dropped)
+                    .add("maxLatenessMs", getMaxLateness(TimeUnit.MILLISECONDS)).toString();
+        }
+    }
+}
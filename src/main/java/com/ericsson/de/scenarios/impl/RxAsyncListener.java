@@ -0,0 +1,271 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static java.util.Collections.singletonList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.de.scenarios.api.ScenarioListener;
+import com.ericsson.de.scenarios.api.TestStep;
+import com.ericsson.de.scenarios.api.events.Event;
+import com.ericsson.de.scenarios.api.events.ScenarioEvent;
+import com.ericsson.de.scenarios.api.events.TestStepEvent;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Delivers events to wrapped listener on its own thread, so slow listener does not delay Test Steps. Events are
+ * passed through bounded {@link RingBuffer}, Test Step events are handled according to {@link Backpressure} when
+ * listener can't keep up. Scenario and Flow events are never dropped, and Scenario finished event waits (up to
+ * {@value #DELIVERY_TIMEOUT_SECONDS} seconds) until listener processed all previous events, so listener is up to date
+ * when scenario run returns.
+ * <p>
+ * Delivery thread is started when events arrive and stops when no scenario is running and all events are delivered,
+ * so listener does not hold a thread between scenario runs. While waiting for events thread is parked until producer
+ * wakes it up.
+ * <p>
+ * Events are delivered later than they happened, so state reachable from events (i.e. Scenario context) may
+ * already be changed by subsequent Test Steps.
+ *
+ * @see com.ericsson.de.scenarios.api.ScenarioRunnerBuilder#addListener(RxAsyncListener)
+ */
+public class RxAsyncListener implements RxScenarioListener {
+
+    static final int DEFAULT_CAPACITY = 8192;
+    static final int SAMPLE_RATE = 10;
+    static final long DELIVERY_TIMEOUT_SECONDS = 30;
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final Logger logger = LoggerFactory.getLogger(RxAsyncListener.class);
+
+    public enum Backpressure {
+        /**
+         * Test Step waits until there is space in buffer
+         */
+        BLOCK,
+        /**
+         * Test Step events are dropped while buffer is full
+         */
+        DROP,
+        /**
+         * When buffer is more than half full only every {@value RxAsyncListener#SAMPLE_RATE}th Test Step event is
+         * delivered, events are dropped while buffer is full
+         */
+        SAMPLE
+    }
+
+    private final EventDispatcher delegate;
+    private final Backpressure backpressure;
+    private final RingBuffer<Object> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicInteger runningScenarios = new AtomicInteger();
+    private final String threadName;
+    private volatile Thread consumer;
+    private volatile boolean idle = false;
+    private volatile boolean closed = false;
+
+    public RxAsyncListener(ScenarioListener listener, Backpressure backpressure) {
+        this(listener, backpressure, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity size of buffer, power of two
+     */
+    public RxAsyncListener(ScenarioListener listener, Backpressure backpressure, int capacity) {
+        checkArgument(listener != null, TestStep.ERROR_PARAMETER_NULL, "listener");
+        checkArgument(backpressure != null, TestStep.ERROR_PARAMETER_NULL, "backpressure");
+        this.delegate = new EventDispatcher(singletonList(listener));
+        this.backpressure = backpressure;
+        this.buffer = new RingBuffer<>(capacity);
+        this.threadName = "scenario-listener-" + listener.getClass().getSimpleName();
+    }
+
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onEvent(Event event) {
+        if (event instanceof TestStepEvent) {
+            if (!delegate.route(event.getClass()).isEmpty()) {
+                offerTestStepEvent(event);
+            }
+        } else if (event instanceof ScenarioEvent.ScenarioStartedEvent) {
+            runningScenarios.incrementAndGet();
+            put(event);
+        } else if (event instanceof ScenarioEvent.ScenarioFinishedEvent) {
+            if (put(event)) {
+                awaitDelivery();
+            }
+            runningScenarios.decrementAndGet();
+            LockSupport.unpark(consumer);
+        } else {
+            put(event);
+        }
+    }
+
+    private void offerTestStepEvent(Event event) {
+        switch (backpressure) {
+            case BLOCK:
+                put(event);
+                break;
+            case SAMPLE:
+                if (buffer.size() > buffer.capacity() / 2 && sampled.incrementAndGet() % SAMPLE_RATE != 0) {
+                    dropped.incrementAndGet();
+                    break;
+                }
+                offer(event);
+                break;
+            default:
+                offer(event);
+        }
+    }
+
+    private void offer(Object event) {
+        if (closed || !buffer.offer(event)) {
+            dropped.incrementAndGet();
+        } else {
+            signal();
+        }
+    }
+
+    /**
+     * Waits for space in buffer while listener is open
+     *
+     * @return false if event was dropped because listener is closed
+     */
+    private boolean put(Object event) {
+        while (!closed) {
+            if (buffer.offer(event)) {
+                signal();
+                return true;
+            }
+            signal();
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    private void awaitDelivery() {
+        CountDownLatch delivered = new CountDownLatch(1);
+        if (!put(delivered)) {
+            return;
+        }
+        try {
+            if (!delivered.await(DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Listener {} did not process scenario events in {} seconds, {} events are still queued", threadName,
+                        DELIVERY_TIMEOUT_SECONDS, buffer.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wakes up delivery thread, or starts it if there is none
+     */
+    private void signal() {
+        Thread current = consumer;
+        if (current == null) {
+            startConsumer();
+        } else if (idle) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    private synchronized void startConsumer() {
+        if (consumer == null && !closed) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    consume();
+                }
+            }, threadName);
+            thread.setDaemon(true);
+            consumer = thread;
+            thread.start();
+        }
+    }
+
+    private synchronized boolean resumeConsumer(Thread self) {
+        if (consumer == null && !closed) {
+            consumer = self;
+            return true;
+        }
+        return false;
+    }
+
+    private void consume() {
+        Thread self = Thread.currentThread();
+        try {
+            while (!closed) {
+                Object event = buffer.poll();
+                if (event instanceof CountDownLatch) {
+                    ((CountDownLatch) event).countDown();
+                } else if (event != null) {
+                    delegate.post(event);
+                } else if (runningScenarios.get() <= 0) {
+                    consumer = null;
+                    if (buffer.size() == 0 || !resumeConsumer(self)) {
+                        return;
+                    }
+                } else {
+                    idle = true;
+                    if (buffer.size() == 0 && runningScenarios.get() > 0 && !closed) {
+                        LockSupport.park(this);
+                    }
+                    idle = false;
+                }
+            }
+        } finally {
+            if (consumer == self) {
+                consumer = null;
+            }
+        }
+    }
+
+    /**
+     * Stops delivery thread, events which are not delivered yet are discarded and further events are dropped
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+    }
+
+    /**
+     * @return true while delivery thread is running
+     */
+    boolean isDelivering() {
+        return consumer != null;
+    }
+
+    /**
+     * @return count of events waiting for delivery
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    /**
+     * @return count of Test Step events which were not delivered due to {@link Backpressure}
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
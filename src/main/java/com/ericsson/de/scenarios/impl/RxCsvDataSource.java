@@ -0,0 +1,67 @@
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ *  The copyright to the computer program(s) herein is the property of
+ *  Ericsson Inc. The programs may be used and/or copied only with written
+ *  permission from Ericsson Inc. or in accordance with the terms and
+ *  conditions stipulated in the agreement/contract under which the
+ *  program(s) have been supplied.
+ */
+
+package com.ericsson.de.scenarios.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.ericsson.de.scenarios.api.DataRecord;
+import com.ericsson.de.scenarios.api.DataSource;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * {@link DataSource} of CSV file, which is read row by row on each iteration instead of being loaded to memory.
+ * CSV Data Sources are {@link DataSource#streaming()}, so flows read the file again on each use instead of keeping
+ * its Data Records.
+ * With parallelism above 1 file is parsed by multiple threads, records of shared Data Source are returned
+ * in order they are parsed.
+ *
+ * @see CsvReader#iterate(String)
+ */
+class RxCsvDataSource<T> extends DataSource<T> {
+    private final String location;
+    private final Map<String, Class<?>> columnTypes;
+    private final int parallelism;
+
+    RxCsvDataSource(String name, Class<?> type, String location, Map<String, Class<?>> columnTypes, int parallelism) {
+        super(name, type);
+        this.location = location;
+        this.columnTypes = ImmutableMap.copyOf(columnTypes);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Checks that CSV exists and has at least one Data Record, reading only its beginning
+     *
+     * @return streaming Data Source
+     */
+    static <T> DataSource<T> open(String name, Class<?> type, String location, Map<String, Class<?>> columnTypes, int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, CsvReader.ERROR_PARALLELISM);
+        try (CsvReader.RecordIterator records = CsvReader.iterate(location, columnTypes)) {
+            Preconditions.checkState(records.hasNext(), CsvReader.ERROR_DATA_RECORD_LIST_EMPTY);
+        }
+        return new RxCsvDataSource<T>(name, type, location, columnTypes, parallelism).streaming();
+    }
+
+    @Override
+    public Iterator<? extends DataRecord> getIterator() {
+        if (parallelism > 1) {
+            return CsvReader.iterateParallel(location, columnTypes, parallelism, !isShared());
+        }
+        return CsvReader.iterate(location, columnTypes);
+    }
+
+    @Override
+    public DataSource<T> newDefinition() {
+        return new RxCsvDataSource<>(name, getType(), location, columnTypes, parallelism);
+    }
+}
@@ -11,7 +11,6 @@ package com.ericsson.de.scenarios.impl;
  */
 
 import static com.ericsson.de.scenarios.impl.StackTraceFilter.clearStackTrace;
-import static com.google.common.collect.Iterables.getLast;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -63,9 +62,10 @@ class RxDataSource {
 
     /**
      * RxFlow Data Records * Subflow Data Records
+     * Note: {@code first} is requested one by one, so it may be infinite (i.e. cyclic) when result is zipped
      */
     static Observable<DataRecordWrapper> multiply(Observable<DataRecordWrapper> first, final Observable<DataRecordWrapper> second) {
-        return first.flatMap(new Func1<DataRecordWrapper, Observable<DataRecordWrapper>>() {
+        return first.concatMap(new Func1<DataRecordWrapper, Observable<DataRecordWrapper>>() {
             @Override
             public Observable<DataRecordWrapper> call(final DataRecordWrapper firstDataRecords) {
                 return second.map(new Func1<DataRecordWrapper, DataRecordWrapper>() {
@@ -78,11 +78,13 @@ class RxDataSource {
         });
     }
 
+
     /**
      * Repeat Data Source multiple times
+     * Note: {@code dataSource} is requested one by one, so it may be infinite (i.e. cyclic) when result is zipped
      */
     static Observable<DataRecordWrapper> copy(Observable<DataRecordWrapper> dataSource, final int vUsers) {
-        return dataSource.flatMap(new Func1<DataRecordWrapper, Observable<DataRecordWrapper>>() {
+        return dataSource.concatMap(new Func1<DataRecordWrapper, Observable<DataRecordWrapper>>() {
             @Override
             public Observable<DataRecordWrapper> call(DataRecordWrapper DataRecords) {
                 return Observable.just(DataRecords).repeat(vUsers);
@@ -118,8 +120,8 @@ class RxDataSource {
         long min = Long.MAX_VALUE;
 
         for (Internals.Exec execution : executions) {
-            if (execution.getExecutedTestSteps().get(0).startTime < min) {
-                min = execution.getExecutedTestSteps().get(0).startTime;
+            if (execution.getStartTime() < min) {
+                min = execution.getStartTime();
             }
         }
 
@@ -130,8 +132,8 @@ class RxDataSource {
         long max = 0;
 
         for (Internals.Exec execution : executions) {
-            if (getLast(execution.getExecutedTestSteps()).endTime > max) {
-                max = getLast(execution.getExecutedTestSteps()).endTime;
+            if (execution.getEndTime() > max) {
+                max = execution.getEndTime();
             }
         }
 
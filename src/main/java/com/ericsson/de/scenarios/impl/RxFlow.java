@@ -18,6 +18,8 @@ import rx.Observable;
 public abstract class RxFlow implements Identifiable<Long> {
 
     Long id = null;
+    boolean continuousVUsers = false;
+    boolean pipelinedSubflows = false;
     private final String name;
     final DataSourceStrategy dataSource;
     final List<Invocation> testSteps;
@@ -62,6 +62,8 @@ public abstract class RxFlowBuilder<T extends RxFlow> implements FlowBuilderInte
     public static final String ERROR_EXCEPTION_HANDLER_NOT_ONCE = "ExceptionHandler can't be set twice. ";
     public static final String HINT_EXCEPTION_HANDLER = "In case you need multiple exception handlers use Api.compositeExceptionHandler()";
     public static final String ERROR_PREDICATE_NULL = "Predicate defined can not be null";
+    static final String ERROR_CONTINUOUS_V_USERS_NOT_ONCE = "Method withContinuousVUsers() can be called just once per rxFlow";
+    static final String ERROR_PIPELINED_SUBFLOWS_NOT_ONCE = "Method withPipelinedSubflows() can be called just once per rxFlow";
     protected final String name;
 
     private Integer vUsers = null;
@@ -69,6 +71,8 @@ public abstract class RxFlowBuilder<T extends RxFlow> implements FlowBuilderInte
     private DataSource[] dataSources = null;
     private final List<Invocation> testSteps = newArrayList();
     private Predicate<DataRecordWrapper> predicate = null;
+    private boolean continuousVUsers = false;
+    private boolean pipelinedSubflows = false;
 
     private List<TestStep> beforeInvocation = new ArrayList<>();
     private List<TestStep> afterInvocation = new ArrayList<>();
@@ -119,6 +123,36 @@ public abstract class RxFlowBuilder<T extends RxFlow> implements FlowBuilderInte
         return this;
     }
 
+    /**
+     * By default Data Records are processed in batches, where batch size equals vUser count, and next batch starts only
+     * after all vUsers finished previous one. With this option each vUser takes next Data Record as soon as it finished
+     * its own, so slow Data Records do not hold other vUsers idle. Data Record to vUser allocation is not predictable in
+     * this mode.
+     *
+     * @return builder
+     */
+    @Override
+    public FlowBuilderInterfaces.Options<T> withContinuousVUsers() {
+        checkState(!continuousVUsers, ERROR_CONTINUOUS_V_USERS_NOT_ONCE);
+        continuousVUsers = true;
+        return this;
+    }
+
+    /**
+     * By default subflow start is synchronized: all vUsers should finish Test Steps before subflow, before any of them starts
+     * subflow. With this option each vUser starts its own subflows and continues with next Test Steps as soon as its own
+     * work is complete. vUsers are still synchronized on subflows which require it, i.e. subflows with shared Data Sources,
+     * Before/After Steps or {@link #runWhile(Predicate)} criteria.
+     *
+     * @return builder
+     */
+    @Override
+    public FlowBuilderInterfaces.Options<T> withPipelinedSubflows() {
+        checkState(!pipelinedSubflows, ERROR_PIPELINED_SUBFLOWS_NOT_ONCE);
+        pipelinedSubflows = true;
+        return this;
+    }
+
     private void checkVUsersNotSet() {
         checkState(this.vUsers == null, ERROR_V_USERS_NOT_ONCE);
         checkState(!vUsersAuto, ERROR_V_USERS_NOT_ONCE);
@@ -323,7 +357,10 @@ public abstract class RxFlowBuilder<T extends RxFlow> implements FlowBuilderInte
                 DataSourceStrategy.empty(name, vUsers) :
                 DataSourceStrategy.fromDefinitions(dataSources, vUsers);
 
-        return createFlow(name, dataSource, testSteps, beforeInvocation, afterInvocation, exceptionHandler, predicate);
+        T flow = createFlow(name, dataSource, testSteps, beforeInvocation, afterInvocation, exceptionHandler, predicate);
+        flow.continuousVUsers = continuousVUsers;
+        flow.pipelinedSubflows = pipelinedSubflows;
+        return flow;
     }
 
     protected abstract T createFlow(String name, DataSourceStrategy dataSource, List<Invocation> testSteps, List<TestStep> beforeInvocations,
@@ -350,8 +387,9 @@ public abstract class RxFlowBuilder<T extends RxFlow> implements FlowBuilderInte
             if (!dataSource.isShared()) {
                 nonSharedDSNames.add(dataSource.getName());
             } else if (!dataSource.isCyclic()) {
-                Preconditions.checkArgument(dataSource.getSize() > 0, format(DataSourceStrategy.ERROR_DATA_SOURCE_EMPTY, dataSource.getName()));
-                minDataRecords = min(minDataRecords, dataSource.getSize());
+                int size = dataSource.getSize();
+                Preconditions.checkArgument(size > 0, format(DataSourceStrategy.ERROR_DATA_SOURCE_EMPTY, dataSource.getName()));
+                minDataRecords = min(minDataRecords, size);
             }
         }
 
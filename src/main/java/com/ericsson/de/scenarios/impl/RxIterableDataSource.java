@@ -10,10 +10,12 @@
 
 package com.ericsson.de.scenarios.impl;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 import com.ericsson.de.scenarios.api.DataRecord;
 import com.ericsson.de.scenarios.api.DataSource;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 
 /**
@@ -37,6 +39,16 @@ class RxIterableDataSource<T> extends DataSource<T> {
         return iterable.iterator();
     }
 
+    @Override
+    protected Optional<Integer> knownSize() {
+        if (iterable instanceof Collection) {
+            return Optional.of(((Collection<?>) iterable).size());
+        } else if (iterable instanceof DataSource) {
+            return ((DataSource<?>) iterable).getSizeHint();
+        }
+        return Optional.absent();
+    }
+
     @Override
     public DataSource<T> newDefinition() {
         return new RxIterableDataSource<>(name, getType(), this);
@@ -13,12 +13,15 @@ package com.ericsson.de.scenarios.impl;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.lang.reflect.Proxy;
+import java.util.Collection;
 import java.util.Iterator;
 
-import com.ericsson.de.scenarios.api.BasicDataRecord;
+import com.ericsson.de.scenarios.api.ApiBridge;
 import com.ericsson.de.scenarios.api.DataRecord;
+import com.ericsson.de.scenarios.api.DataRecordSchema;
 import com.ericsson.de.scenarios.api.DataSource;
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.collect.Iterators;
 
 /**
@@ -46,14 +49,20 @@ class RxObjectDataSource<T> extends DataSource<T> {
 
     @Override
     public Iterator<? extends DataRecord> getIterator() {
+        final DataRecordSchema schema = DataRecordSchema.of(name);
         return Iterators.transform(iterable.iterator(), new Function<T, DataRecord>() {
             @Override
             public DataRecord apply(Object value) {
-                return BasicDataRecord.fromValues(name, value);
+                return ApiBridge.wrapValues(schema, new Object[] { value });
             }
         });
     }
 
+    @Override
+    protected Optional<Integer> knownSize() {
+        return iterable instanceof Collection ? Optional.of(((Collection<?>) iterable).size()) : Optional.<Integer>absent();
+    }
+
     @Override
     public DataSource<T> newDefinition() {
         return new RxObjectDataSource<>(name, iterable);
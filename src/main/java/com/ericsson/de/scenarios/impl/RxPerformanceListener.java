@@ -1,28 +1,65 @@
 package com.ericsson.de.scenarios.impl;
 
-import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
-import java.io.DataOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.scenarios.api.ScenarioListener;
+import com.ericsson.de.scenarios.api.TestStep;
 import com.ericsson.de.scenarios.api.events.ScenarioEvent;
+import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+/**
+ * Reports Test Step durations to Graphite. vUser threads only put samples to bounded queue (samples are dropped if
+ * queue is full), background thread aggregates them per Test Step and sends count, errors and percentiles once per
+ * interval over persistent connection, which is reopened if sending fails.
+ */
 public class RxPerformanceListener extends ScenarioListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(RxPerformanceListener.class);
 
+    static final String PREFIX = "com.ericsson.de.scenarios.teststep.";
+    static final long DEFAULT_INTERVAL_SECONDS = 10;
+    static final int DEFAULT_QUEUE_CAPACITY = 100_000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
     private final String host;
     private final int port;
+    private final BlockingQueue<Sample> samples;
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService reporter;
+
+    private Socket socket;
+    private Writer writer;
 
     static ScenarioListener get(String host, int port) {
         try {
-            new Socket(host, port);
-            LOGGER.error("Connected to Graphite at {}:{}", host, port);
-            return new RxPerformanceListener(host, port);
+            new Socket(host, port).close();
+            LOGGER.info("Connected to Graphite at {}:{}", host, port);
+            return new RxPerformanceListener(host, port, DEFAULT_INTERVAL_SECONDS, SECONDS, DEFAULT_QUEUE_CAPACITY);
         } catch (Exception e) {
             LOGGER.error("Unable to connect to Graphite at {}:{}, no performance data will be reported", host, port);
             return new ScenarioListener() {
@@ -30,26 +67,145 @@ public class RxPerformanceListener extends ScenarioListener {
         }
     }
 
-    private RxPerformanceListener(String host, int port) {
+    RxPerformanceListener(String host, int port, long interval, TimeUnit unit, int queueCapacity) {
         this.host = host;
         this.port = port;
+        this.samples = new ArrayBlockingQueue<>(queueCapacity);
+        this.reporter = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("graphite-reporter-%d").setDaemon(true).build());
+        reporter.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                report();
+            }
+        }, interval, interval, unit);
     }
 
     @Subscribe
-    public void onScenarioStarted(ScenarioEvent.ScenarioStartedEvent event) {
-        // intentionally do nothing
+    @AllowConcurrentEvents
+    public void debugTestStep(ScenarioEventBus.InternalTestStepFinishedEvent event) {
+        Internals.TestStepResult result = event.getResult();
+        if (!samples.offer(new Sample(event.getName(), result.duration, result.status))) {
+            dropped.incrementAndGet();
+        }
     }
 
-    @Subscribe
-    public void debugTestStep(ScenarioEventBus.InternalTestStepFinishedEvent event) throws Exception {
-        Socket conn = new Socket(host, port);
-        DataOutputStream dos = new DataOutputStream(conn.getOutputStream());
+    /**
+     * Sends samples of finished scenario without waiting for the end of interval
+     */
+    @Override
+    public void onScenarioFinished(ScenarioEvent.ScenarioFinishedEvent event) {
+        try {
+            reporter.submit(new Runnable() {
+                @Override
+                public void run() {
+                    report();
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.warn("Unable to report performance data to Graphite", e);
+        }
+    }
 
-        String plainText = format("com.ericsson.de.scenarios.teststep.%s.%s %s %s \n", event.getName().replaceAll("[\\W]|_", "").toLowerCase(),
-                event.getExecution().vUser.toString().replace(".", "_"), event.getResult().endTime - event.getResult().startTime,
-                event.getResult().endTime / 1000);
+    /**
+     * Stops background reporting and closes connection, samples not reported yet are discarded
+     */
+    public void close() {
+        reporter.execute(new Runnable() {
+            @Override
+            public void run() {
+                disconnect();
+            }
+        });
+        reporter.shutdown();
+    }
 
-        dos.writeBytes(plainText);
-        conn.close();
+    long getDropped() {
+        return dropped.get();
+    }
+
+    private void report() {
+        List<Sample> drained = new ArrayList<>();
+        samples.drainTo(drained);
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Map<String, PerformanceStatistics.Step> steps = new TreeMap<>();
+        for (Sample sample : drained) {
+            PerformanceStatistics.Step step = steps.get(sample.name);
+            if (step == null) {
+                step = new PerformanceStatistics.Step();
+                steps.put(sample.name, step);
+            }
+            step.record(sample.duration, sample.duration, sample.status == TestStep.Status.FAILED);
+        }
+
+        send(lines(steps, System.currentTimeMillis() / 1000));
+    }
+
+    static String lines(Map<String, PerformanceStatistics.Step> steps, long timestamp) {
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, PerformanceStatistics.Step> entry : steps.entrySet()) {
+            String metric = PREFIX + entry.getKey().replaceAll("[\\W]|_", "").toLowerCase();
+            LatencyHistogram histogram = entry.getValue().getServiceTime();
+            appendLine(lines, metric + ".count", "" + histogram.getCount(), timestamp);
+            appendLine(lines, metric + ".errors", "" + entry.getValue().getErrors(), timestamp);
+            appendLine(lines, metric + ".mean", millis(histogram.getMean()), timestamp);
+            appendLine(lines, metric + ".p50", millis(histogram.getValueAtPercentile(50)), timestamp);
+            appendLine(lines, metric + ".p90", millis(histogram.getValueAtPercentile(90)), timestamp);
+            appendLine(lines, metric + ".p99", millis(histogram.getValueAtPercentile(99)), timestamp);
+            appendLine(lines, metric + ".max", millis(histogram.getMax()), timestamp);
+        }
+        return lines.toString();
+    }
+
+    private static void appendLine(StringBuilder lines, String metric, String value, long timestamp) {
+        lines.append(metric).append(' ').append(value).append(' ').append(timestamp).append('\n');
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", (double) nanos / MILLISECONDS.toNanos(1));
+    }
+
+    private void send(String lines) {
+        try {
+            if (writer == null) {
+                socket = new Socket();
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII));
+            }
+            writer.write(lines);
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to send performance data to Graphite at {}:{}, will reconnect on next interval: {}", host, port, e.toString());
+            disconnect();
+        }
+    }
+
+    private void disconnect() {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ignored) {
+            // nothing to do, connection is dropped anyway
+        }
+        socket = null;
+        writer = null;
+    }
+
+    private static class Sample {
+        final String name;
+        final long duration;
+        final TestStep.Status status;
+
+        Sample(String name, long duration, TestStep.Status status) {
+            this.name = name;
+            this.duration = duration;
+            this.status = status;
+        }
     }
 }
@@ -11,10 +11,13 @@
 package com.ericsson.de.scenarios.impl;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RxRampUp {
     /**
@@ -109,4 +112,51 @@ public class RxRampUp {
     public interface StrategyProvider {
         Strategy provideFor(int vUsers);
     }
+
+    /**
+     * Accuracy of Ramp Up: how much later than planned delayed vUsers were actually started
+     */
+    public static class Statistics {
+        private final AtomicLong delayedStarts = new AtomicLong();
+        private final AtomicLong totalLag = new AtomicLong();
+        private final AtomicLong maxLag = new AtomicLong();
+
+        void delayedStart(long lagNanos) {
+            delayedStarts.incrementAndGet();
+            totalLag.addAndGet(lagNanos);
+
+            long max;
+            do {
+                max = maxLag.get();
+            } while (lagNanos > max && !maxLag.compareAndSet(max, lagNanos));
+        }
+
+        /**
+         * @return count of vUser starts delayed by Ramp Up
+         */
+        public long getDelayedStarts() {
+            return delayedStarts.get();
+        }
+
+        /**
+         * @return maximal difference between planned and actual start of delayed vUser
+         */
+        public long getMaxLag(TimeUnit unit) {
+            return unit.convert(maxLag.get(), NANOSECONDS);
+        }
+
+        /**
+         * @return average difference between planned and actual start of delayed vUser
+         */
+        public long getAverageLag(TimeUnit unit) {
+            long starts = delayedStarts.get();
+            return starts == 0 ? 0 : unit.convert(totalLag.get() / starts, NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this).add("delayedStarts", delayedStarts).add("averageLagMs", getAverageLag(MILLISECONDS))
+                    .add("maxLagMs", getMaxLag(MILLISECONDS)).toString();
+        }
+    }
 }
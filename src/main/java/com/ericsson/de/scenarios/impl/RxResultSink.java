@@ -0,0 +1,18 @@
+package com.ericsson.de.scenarios.impl;
+
+/**
+ * Receives results of Test Steps as soon as they are finished, i.e. to aggregate statistics or write them to file.
+ * Calls to one sink are serialized, so implementation does not need to be thread safe.
+ * <p>
+ * Combined with streaming mode, results are dropped after they are passed to sinks, so memory use does not grow with
+ * duration of the run.
+ */
+public interface RxResultSink {
+
+    void onResult(RxTestStepResult result);
+
+    /**
+     * Called after Scenario is finished, i.e. to flush buffered results
+     */
+    void onFinished();
+}
@@ -9,12 +9,17 @@ package com.ericsson.de.scenarios.impl;
  * program(s) have been supplied.
  */
 
+import static java.util.Collections.singletonList;
+
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 
 import java.util.List;
 import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.ericsson.de.scenarios.api.DebugGraphMode;
 import com.ericsson.de.scenarios.api.ExceptionHandler;
 import com.ericsson.de.scenarios.api.Flow;
@@ -25,6 +30,8 @@ import com.ericsson.de.scenarios.impl.graph.export.GraphExporter;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Maps;
 
+import rx.functions.Func1;
+
 /**
  * Class which contains the base functionality for running scenario and creating execution graph
  *
@@ -32,44 +39,101 @@ import com.google.common.collect.Maps;
  */
 public abstract class RxScenarioRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(RxScenarioRunner.class);
+
     private final DebugGraphMode debugGraphMode;
     private final List<RxScenarioListener> listeners;
     private final RxExceptionHandler defaultExceptionHandler;
+    final WorkerPool workerPool;
+    final boolean streamResults;
 
     protected RxScenarioRunner(DebugGraphMode debugGraphMode, List<RxScenarioListener> listeners, ExceptionHandler defaultExceptionHandler) {
+        this(debugGraphMode, listeners, defaultExceptionHandler, new WorkerPool());
+    }
+
+    protected RxScenarioRunner(DebugGraphMode debugGraphMode, List<RxScenarioListener> listeners, ExceptionHandler defaultExceptionHandler,
+            WorkerPool workerPool) {
+        this(debugGraphMode, listeners, defaultExceptionHandler, workerPool, false);
+    }
+
+    /**
+     * @param streamResults
+     *         if true, results of Test Steps are only passed to listeners and {@link RxResultSink}s and then dropped.
+     *         Execution graph is not available in this mode
+     */
+    protected RxScenarioRunner(DebugGraphMode debugGraphMode, List<RxScenarioListener> listeners, ExceptionHandler defaultExceptionHandler,
+            WorkerPool workerPool, boolean streamResults) {
         this.debugGraphMode = debugGraphMode;
         this.listeners = listeners;
         this.defaultExceptionHandler = defaultExceptionHandler;
+        this.workerPool = workerPool;
+        this.streamResults = streamResults;
     }
 
     protected void run(RxScenario scenario) {
         ScenarioEventBus eventBus = new ScenarioEventBus(concat(listeners, scenario.listeners));
-        FlowExecutionContext context = FlowExecutionContext.createScenarioFlowContext(scenario, eventBus, defaultExceptionHandler);
+        FlowExecutionContext context =
+                FlowExecutionContext.createScenarioFlowContext(scenario, eventBus, workerPool, streamResults, defaultExceptionHandler);
 
         eventBus.scenarioStarted(scenario);
-        List<Internals.FlowExecutionResult> results = Implementation.runFlow(context).toList().toBlocking().single();
+        List<Internals.FlowExecutionResult> results = Implementation.runFlow(context).filter(retainResult()).toList().toBlocking().single();
         eventBus.scenarioFinished(scenario, results);
 
         Throwable error = composeError(results);
         if (error != null && defaultExceptionHandler.cannotHandle(error)) {
-            createGraph(results, DebugGraphMode.SVG, scenario.name);
+            if (!streamResults) {
+                createGraph(results, DebugGraphMode.SVG, scenario.name);
+            }
             Throwables.throwIfUnchecked(error);
             throw new RuntimeException(error);
-        } else if (!DebugGraphMode.NONE.equals(debugGraphMode)) {
+        } else if (!DebugGraphMode.NONE.equals(debugGraphMode) && !streamResults) {
             createGraph(results, debugGraphMode, scenario.name);
         }
     }
 
-    List<Internals.TestStepResult> runPerformance(PerformanceFlowBuilder builder) {
+    /**
+     * In streaming mode only failed results are kept, to propagate errors
+     */
+    private Func1<Internals.FlowExecutionResult, Boolean> retainResult() {
+        return new Func1<Internals.FlowExecutionResult, Boolean>() {
+            @Override
+            public Boolean call(Internals.FlowExecutionResult result) {
+                return !streamResults || result.isFailed();
+            }
+        };
+    }
+
+    /**
+     * Summary is built from returned {@link ResultStore}, or in streaming mode (when results are not stored) from
+     * {@link PerformanceStatistics} recorded concurrently while Test Steps finish
+     */
+    ResultStore runPerformance(PerformanceFlowBuilder builder) {
         Flow flow = builder.build();
 
-        ScenarioEventBus eventBus = new ScenarioEventBus(listeners);
+        PerformanceStatistics performance = streamResults ? new PerformanceStatistics(flow.getName()) : null;
+        ScenarioEventBus eventBus = new ScenarioEventBus(
+                streamResults ? concat(listeners, singletonList(new ResultSinkListener.Concurrent(performance))) : listeners);
         RxScenario scenario = new Scenario(flow.getName(), Maps.<String, Object>newHashMap(), flow, listeners);
-        FlowExecutionContext flowExecutionContext = FlowExecutionContext.createScenarioFlowContext(scenario, eventBus, ExceptionHandler.PROPAGATE);
+        FlowExecutionContext flowExecutionContext =
+                FlowExecutionContext.createScenarioFlowContext(scenario, eventBus, workerPool, streamResults, ExceptionHandler.PROPAGATE);
 
         eventBus.scenarioStarted(scenario);
-        List<Internals.TestStepResult> testStepResults = Implementation.runFlowPerformance(flowExecutionContext, builder.getRampUp());
+        ResultStore testStepResults;
+        if (builder.getArrivalRate() == null) {
+            RxRampUp.Statistics statistics = new RxRampUp.Statistics();
+            testStepResults = Implementation.runFlowPerformance(flowExecutionContext, builder.getRampUp(), statistics);
+            logger.info("Ramp up of flow {}: {}", flow.getName(), statistics);
+        } else {
+            RxArrivalRate.Statistics statistics = new RxArrivalRate.Statistics();
+            testStepResults = Implementation.runFlowArrivalRate(flowExecutionContext, builder.getArrivalRate(), statistics);
+            logger.info("Arrival rate of flow {}: {}", flow.getName(), statistics);
+        }
         eventBus.scenarioFinished(scenario, null);
+        if (streamResults) {
+            new PerformanceReporter().summary(performance);
+        } else {
+            new PerformanceReporter().summary(flow.getName(), testStepResults);
+        }
         return testStepResults;
     }
 
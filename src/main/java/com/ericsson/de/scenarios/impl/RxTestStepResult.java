@@ -0,0 +1,45 @@
+package com.ericsson.de.scenarios.impl;
+
+import com.ericsson.de.scenarios.api.TestStep;
+
+/**
+ * Outcome of a single Test Step invocation, as passed to {@link RxResultSink}
+ */
+public interface RxTestStepResult {
+
+    /**
+     * @return unique id of invocation, consisting of Test Step id, vUser and Data Record iteration
+     */
+    String getId();
+
+    String getName();
+
+    TestStep.Status getStatus();
+
+    /**
+     * @return start time in milliseconds
+     */
+    long getStartTime();
+
+    /**
+     * @return end time in milliseconds, derived from start time and duration
+     */
+    long getEndTime();
+
+    /**
+     * @return duration in nanoseconds, measured with monotonic clock
+     */
+    long getDuration();
+
+    /**
+     * @return duration in nanoseconds plus delay of iteration start against its intended start time (Ramp Up or arrival
+     * rate schedule), i.e. time user would have waited. Equals to {@link #getDuration()} if iteration was on time or
+     * was not scheduled
+     */
+    long getResponseTime();
+
+    /**
+     * @return error thrown by Test Step or {@code null} if Test Step succeeded
+     */
+    Throwable getError();
+}
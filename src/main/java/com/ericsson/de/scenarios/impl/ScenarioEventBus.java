@@ -1,68 +1,74 @@
 package com.ericsson.de.scenarios.impl;
 
-import static com.ericsson.de.scenarios.impl.StackTraceFilter.filterListenerStackTrace;
-
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
 import com.ericsson.de.scenarios.api.TestStep;
-import com.ericsson.de.scenarios.api.events.Event;
 import com.ericsson.de.scenarios.api.events.FlowEvent;
 import com.ericsson.de.scenarios.api.events.ScenarioEvent;
 import com.ericsson.de.scenarios.api.events.TestStepEvent;
 import com.ericsson.de.scenarios.impl.Internals.Exec;
 import com.ericsson.de.scenarios.impl.Internals.TestStepResult;
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.SubscriberExceptionContext;
-import com.google.common.eventbus.SubscriberExceptionHandler;
 
 import rx.Observable;
 
 /**
- * Currently only used for {@link RxScenarioListener}
+ * Currently only used for {@link RxScenarioListener}. Subscribers are resolved per event type when bus is created,
+ * events nobody listens to are not created at all.
  */
 class ScenarioEventBus {
 
-    private static final Logger logger = LoggerFactory.getLogger(ScenarioEventBus.class);
-
-    private EventBus eventBus;
+    private final EventDispatcher.Route scenarioStarted;
+    private final EventDispatcher.Route scenarioFinished;
+    private final EventDispatcher.Route flowStarted;
+    private final EventDispatcher.Route flowFinished;
+    private final EventDispatcher.Route testStepStarted;
+    private final EventDispatcher.Route testStepFinished;
 
     ScenarioEventBus(Iterable<RxScenarioListener> listeners) {
-        eventBus = new EventBus(ScenarioLoggingHandler.INSTANCE);
-        for (RxScenarioListener listener : listeners) {
-            eventBus.register(listener);
-        }
+        EventDispatcher dispatcher = new EventDispatcher(listeners);
+        scenarioStarted = dispatcher.route(ScenarioEvent.ScenarioStartedEvent.class);
+        scenarioFinished = dispatcher.route(InternalScenarioFinishedEvent.class);
+        flowStarted = dispatcher.route(InternalFlowStartedEvent.class);
+        flowFinished = dispatcher.route(InternalFlowFinishedEvent.class);
+        testStepStarted = dispatcher.route(InternalTestStepStartedEvent.class);
+        testStepFinished = dispatcher.route(InternalTestStepFinishedEvent.class);
     }
 
     void scenarioStarted(RxScenario scenario) {
-        post(new ScenarioEvent.ScenarioStartedEvent(scenario));
+        if (!scenarioStarted.isEmpty()) {
+            scenarioStarted.post(new ScenarioEvent.ScenarioStartedEvent(scenario));
+        }
     }
 
     void scenarioFinished(RxScenario scenario, List<Internals.FlowExecutionResult> results) {
-        post(new InternalScenarioFinishedEvent(scenario, results));
+        if (!scenarioFinished.isEmpty()) {
+            scenarioFinished.post(new InternalScenarioFinishedEvent(scenario, results));
+        }
     }
 
     void flowStarted(RxFlow rxFlow, Observable<DataRecordWrapper> dataSource) {
-        post(new InternalFlowStartedEvent(rxFlow, dataSource));
+        if (!flowStarted.isEmpty()) {
+            flowStarted.post(new InternalFlowStartedEvent(rxFlow, dataSource));
+        }
     }
 
     void flowFinished(RxFlow rxFlow, Observable<DataRecordWrapper> dataSource) {
-        post(new InternalFlowFinishedEvent(rxFlow, dataSource));
+        if (!flowFinished.isEmpty()) {
+            flowFinished.post(new InternalFlowFinishedEvent(rxFlow, dataSource));
+        }
     }
 
     void testStepStarted(TestStep testStep, Exec execution) {
-        post(new InternalTestStepStartedEvent(testStep, execution));
+        if (!testStepStarted.isEmpty()) {
+            testStepStarted.post(new InternalTestStepStartedEvent(testStep, execution));
+        }
     }
 
     void testStepFinished(TestStep testStep, Exec execution, TestStepResult result) {
-        post(new InternalTestStepFinishedEvent(testStep, execution, result));
-    }
-
-    private void post(Event event) {
-        eventBus.post(event);
+        if (!testStepFinished.isEmpty()) {
+            testStepFinished.post(new InternalTestStepFinishedEvent(testStep, execution, result));
+        }
     }
 
     /*---------------- Internal Events ----------------*/
@@ -124,7 +130,7 @@ class ScenarioEventBus {
         private TestStepResult result;
 
         private InternalTestStepFinishedEvent(TestStep testStep, Exec execution, TestStepResult result) {
-            super(testStep, result.status, result.error);
+            super(testStep, result.status, result.error, result.startTime, result.duration);
             this.execution = execution;
             this.result = result;
         }
@@ -139,14 +145,4 @@ class ScenarioEventBus {
     }
 
     /*-------- end --------*/
-
-    private static final class ScenarioLoggingHandler implements SubscriberExceptionHandler {
-
-        static final ScenarioLoggingHandler INSTANCE = new ScenarioLoggingHandler();
-
-        @Override
-        public void handleException(Throwable exception, SubscriberExceptionContext context) {
-            logger.error("Exception thrown by ScenarioListener:", filterListenerStackTrace(exception));
-        }
-    }
 }
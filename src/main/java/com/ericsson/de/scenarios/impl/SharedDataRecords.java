@@ -0,0 +1,73 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out Data Records of shared Data Source to vUsers. Each vUser thread claims next Data Record itself by moving
+ * atomic cursor over {@link KeptDataRecords}, so vUsers don't wait for each other or for single emitting thread.
+ * Every Data Record is claimed by exactly one vUser, unless cursor wraps around (i.e. for cyclic Data Source), in
+ * which case Data Records are handed out again in the same order.
+ */
+class SharedDataRecords<T> {
+
+    static final String ERROR_EMPTY = "Shared Data Records should not be empty";
+
+    private final KeptDataRecords<T> records;
+    private final boolean wrap;
+    private final AtomicLong cursor = new AtomicLong();
+
+    SharedDataRecords(List<T> records, boolean wrap) {
+        this(KeptDataRecords.of(checkNotEmpty(records)), wrap);
+    }
+
+    /**
+     * @param records
+     *         Data Records kept by Data Source strategy, which are not copied, so each flow execution only creates
+     *         new cursor
+     */
+    SharedDataRecords(KeptDataRecords<T> records, boolean wrap) {
+        this.records = records;
+        this.wrap = wrap;
+    }
+
+    private static <T> List<T> checkNotEmpty(List<T> records) {
+        checkArgument(!records.isEmpty(), ERROR_EMPTY);
+        return records;
+    }
+
+    /**
+     * @return next Data Record, or null if all Data Records were claimed and cursor does not wrap around
+     */
+    T next() {
+        long index = cursor.getAndIncrement();
+        T record = index < Integer.MAX_VALUE ? records.get((int) index) : null;
+        if (record != null || !wrap) {
+            return record;
+        }
+        return records.get((int) (index % records.size()));
+    }
+
+    int size() {
+        return records.size();
+    }
+
+    /**
+     * @return count of Data Records claimed so far (including unsuccessful claims after Data Records are exhausted)
+     */
+    long claimed() {
+        return cursor.get();
+    }
+}
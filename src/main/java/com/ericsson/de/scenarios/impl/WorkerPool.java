@@ -0,0 +1,149 @@
+package com.ericsson.de.scenarios.impl;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+/**
+ * Long-lived pool of worker threads shared by all chunks, forks and performance runs of one {@link RxScenarioRunner}.
+ * <p>
+ * Flows block their caller while vUsers are running (see {@link Implementation#runInParallel}), so a pool of fixed size
+ * could deadlock on nested subflows. Instead the pool keeps {@code coreThreads} warm and grows on demand, while
+ * concurrency of each flow is limited logically by its vUser count. Idle threads are released after {@code keepAlive}.
+ * Threads are daemons, so pool does not need to be shut down.
+ * <p>
+ * Delayed starts (i.e. Ramp Up) are scheduled on a single timer thread, so worker thread is taken only when vUser
+ * actually begins work.
+ * <p>
+ * Pool may also be backed by custom executor, i.e. {@link #virtualThreads()} runs each vUser on its own virtual thread
+ * when running on JDK 21+.
+ */
+public class WorkerPool {
+
+    static final String ERROR_CORE_THREADS = "Core threads count should be positive";
+    static final String ERROR_KEEP_ALIVE = "Keep alive time should be positive";
+    static final String ERROR_EXECUTOR_NULL = "Executor should not be null";
+    static final String ERROR_VIRTUAL_THREADS_UNSUPPORTED = "Virtual threads require JDK 21 or later, current JDK is %s";
+
+    static final int DEFAULT_CORE_THREADS = Runtime.getRuntime().availableProcessors();
+    static final long DEFAULT_KEEP_ALIVE_SECONDS = 60;
+
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+    private final Scheduler timer;
+
+    public WorkerPool() {
+        this(DEFAULT_CORE_THREADS, DEFAULT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public WorkerPool(int coreThreads, long keepAlive, TimeUnit unit) {
+        this(threadPool(coreThreads, keepAlive, unit), keepAlive, unit);
+    }
+
+    /**
+     * @param executor
+     *         executor which runs vUsers. It should not queue tasks, as vUsers of nested Flows block while waiting
+     *         for their Subflows
+     */
+    public WorkerPool(ExecutorService executor) {
+        this(checkNotNull(executor, ERROR_EXECUTOR_NULL), DEFAULT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private WorkerPool(ExecutorService executor, long timerKeepAlive, TimeUnit unit) {
+        this.executor = executor;
+        scheduler = Schedulers.from(executor);
+
+        ThreadFactory timerThreadFactory = new ThreadFactoryBuilder().setNameFormat("scenario-timer-%d").setDaemon(true).build();
+        ScheduledThreadPoolExecutor timerExecutor = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+        timerExecutor.setKeepAliveTime(timerKeepAlive, unit);
+        timerExecutor.allowCoreThreadTimeOut(true);
+        timer = Schedulers.from(timerExecutor);
+    }
+
+    private static ExecutorService threadPool(int coreThreads, long keepAlive, TimeUnit unit) {
+        checkArgument(coreThreads > 0, ERROR_CORE_THREADS);
+        checkArgument(keepAlive > 0, ERROR_KEEP_ALIVE);
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("scenario-worker-%d").setDaemon(true).build();
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(coreThreads, Integer.MAX_VALUE, keepAlive, unit, new SynchronousQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Pool which starts new virtual thread for each vUser. Blocking Test Steps do not occupy platform threads while
+     * waiting, so count of vUsers is not limited by thread budget.
+     * Project is compiled for Java 7, so JDK API is looked up at runtime.
+     *
+     * @throws UnsupportedOperationException
+     *         if JDK does not support virtual threads
+     */
+    public static WorkerPool virtualThreads() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return new WorkerPool((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException(String.format(ERROR_VIRTUAL_THREADS_UNSUPPORTED, System.getProperty("java.version")), e);
+        }
+    }
+
+    /**
+     * @return scheduler to run {@code vUsers} in parallel. Single vUser is executed in caller thread
+     */
+    Scheduler scheduler(int vUsers) {
+        return vUsers == 1 ? Schedulers.immediate() : scheduler;
+    }
+
+    /**
+     * @return scheduler which always runs on pool threads, for callers which should not be blocked by single vUser
+     */
+    Scheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return scheduler for delayed actions. Actions should only hand over work to {@link #scheduler()}, as all timers
+     * share one thread
+     */
+    Scheduler timer() {
+        return timer;
+    }
+
+    /**
+     * @return current count of pool threads, or -1 if pool runs on executor which doesn't report it
+     */
+    int getPoolSize() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getPoolSize() : -1;
+    }
+
+    /**
+     * @return largest count of pool threads at the same time, or -1 if pool runs on executor which doesn't report it
+     */
+    int getLargestPoolSize() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getLargestPoolSize() : -1;
+    }
+}
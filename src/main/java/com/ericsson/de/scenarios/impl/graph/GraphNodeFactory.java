@@ -32,7 +32,9 @@ public final class GraphNodeFactory {
         String startTimeAttr = getAttribute(attrMap, GraphNode.Attributes.START_TIME);
         Long startTime = startTimeAttr.isEmpty() ? 0 : Long.valueOf(startTimeAttr);
         String endTimeAttr = getAttribute(attrMap, GraphNode.Attributes.END_TIME);
-        Long endTime = endTimeAttr.isEmpty() ? 0 : Long.valueOf(startTimeAttr);
+        Long endTime = endTimeAttr.isEmpty() ? 0 : Long.valueOf(endTimeAttr);
+        String durationAttr = getAttribute(attrMap, GraphNode.Attributes.DURATION);
+        Long duration = durationAttr.isEmpty() ? null : Long.valueOf(durationAttr);
 
         VertexType vertexType = resolveVertexType(vertexTypeName);
         switch (vertexType) {
@@ -41,7 +43,7 @@ public final class GraphNodeFactory {
             case SUB_FLOW:
                 return createSubFlowNode(id, name, dataRecord, vUser, meta, exceptionName);
             case TEST_STEP:
-                return createTestStepNode(id, name, startTime, endTime, dataRecord, vUser, meta, status, exceptionName);
+                return createTestStepNode(id, name, startTime, endTime, duration, dataRecord, vUser, meta, status, exceptionName, null);
             case FLOW_ENDED:
                 return createFlowEndedNode(id, name, dataRecord, vUser, meta, exceptionName);
             case SCENARIO_FINISHED:
@@ -85,6 +87,11 @@ public final class GraphNodeFactory {
         return createTestStepNode(id, name, startTime, endTime, dataRecord, vUser, meta, status, errorName(exception), exception);
     }
 
+    public static TestStepNode createTestStepNode(String id, String name, Long startTime, Long endTime, Long duration, String dataRecord,
+            String vUser, String meta, String status, Throwable exception) {
+        return createTestStepNode(id, name, startTime, endTime, duration, dataRecord, vUser, meta, status, errorName(exception), exception);
+    }
+
     public static FlowEndedNode createFlowEndedNode(String id, String name, String dataRecord, String vUser, String meta, Throwable exception) {
         return createFlowEndedNode(id, name, dataRecord, vUser, meta, errorName(exception), exception);
     }
@@ -102,7 +109,15 @@ public final class GraphNodeFactory {
 
     public static TestStepNode createTestStepNode(String id, String name, Long startTime, Long endTime, String dataRecord, String vUser, String meta,
             String status, String exceptionName, Throwable exception) {
-        return new TestStepNode(id, name, startTime, endTime, dataRecord, vUser, meta, status, exceptionName, exception);
+        return createTestStepNode(id, name, startTime, endTime, null, dataRecord, vUser, meta, status, exceptionName, exception);
+    }
+
+    /**
+     * @param duration in nanoseconds, {@code null} if not measured
+     */
+    public static TestStepNode createTestStepNode(String id, String name, Long startTime, Long endTime, Long duration, String dataRecord,
+            String vUser, String meta, String status, String exceptionName, Throwable exception) {
+        return new TestStepNode(id, name, startTime, endTime, duration, dataRecord, vUser, meta, status, exceptionName, exception);
     }
 
     public static FlowEndedNode createFlowEndedNode(String id, String name, String dataRecord, String vUser, String meta, String exceptionName,
@@ -13,6 +13,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Strings.isNullOrEmpty;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.jgrapht.graph.DefaultDirectedGraph;
@@ -112,11 +113,12 @@ public class ScenarioExecutionGraph extends DefaultDirectedGraph<ScenarioExecuti
     }
 
     public static class TestStepNode extends GraphNode {
-        TestStepNode(String id, String name, Long startTime, Long endTime, String dataRecord, String vUser, String meta, String status,
-                String exceptionName, Throwable exception) {
+        TestStepNode(String id, String name, Long startTime, Long endTime, Long duration, String dataRecord, String vUser, String meta,
+                String status, String exceptionName, Throwable exception) {
             super(id, name, vUser, meta, dataRecord, status, exceptionName, exception);
             this.startTime = startTime;
             this.endTime = endTime;
+            this.duration = duration;
         }
 
         @Override
@@ -155,6 +157,7 @@ public class ScenarioExecutionGraph extends DefaultDirectedGraph<ScenarioExecuti
 
             String START_TIME = "Start Time";
             String END_TIME = "End Time";
+            String DURATION = "Duration";
         }
 
         static final AtomicLong idGenerator = new AtomicLong();
@@ -171,6 +174,7 @@ public class ScenarioExecutionGraph extends DefaultDirectedGraph<ScenarioExecuti
         final Throwable exception;
         Long startTime = 0L;
         Long endTime = 0L;
+        Long duration = null;
 
         GraphNode(String name) {
             this("", name, "", "", "", "SUCCESS", "", null);
@@ -239,6 +243,13 @@ public class ScenarioExecutionGraph extends DefaultDirectedGraph<ScenarioExecuti
             return endTime - startTime;
         }
 
+        /**
+         * @return execution time in nanoseconds if it was measured, otherwise derived from start and end time
+         */
+        public Long getDuration() {
+            return duration != null ? duration : TimeUnit.MILLISECONDS.toNanos(getExecutionTime());
+        }
+
         public Long getStartTime() {
             return startTime;
         }
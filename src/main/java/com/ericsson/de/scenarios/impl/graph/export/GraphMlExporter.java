@@ -106,6 +106,11 @@ public class GraphMlExporter extends AbstractGraphExporter {
                     public String getAttributeValue(GraphNode graphNode) {
                         return "" + graphNode.getEndTime();
                     }
+                }, new AttributeProvider<GraphNode>(GraphNode.Attributes.DURATION) {
+                    @Override
+                    public String getAttributeValue(GraphNode graphNode) {
+                        return "" + graphNode.getDuration();
+                    }
                 });
 
         List<AttributeProvider<LabeledEdge>> edgeAttributeProviders = Arrays.<AttributeProvider<LabeledEdge>>asList(
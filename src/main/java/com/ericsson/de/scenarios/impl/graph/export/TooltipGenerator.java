@@ -9,8 +9,12 @@
  */
 package com.ericsson.de.scenarios.impl.graph.export;
 
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import static com.google.common.base.Throwables.getStackTraceAsString;
 
+import java.util.Locale;
 import java.util.Map;
 
 import com.ericsson.de.scenarios.api.DataRecord;
@@ -39,7 +43,7 @@ class TooltipGenerator {
             addAttributeRow(builder, "vUsers:", node.getVUser());
         }
         if (node.getExecutionTime() != null) {
-            addAttributeRow(builder, "Time:", "" + node.getExecutionTime() + "ms");
+            addAttributeRow(builder, "Time:", format(Locale.ROOT, "%.3fms", (double) node.getDuration() / MILLISECONDS.toNanos(1)));
         }
         builder.html("</table>");
     }
@@ -0,0 +1,75 @@
+package com.ericsson.de.scenarios.api;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.entry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class DataRecordSchemaTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void record_valuesAreFoundByFieldName() throws Exception {
+        DataRecordSchema schema = DataRecordSchema.of("username", "password");
+
+        DataRecord record = schema.record("John", "pass");
+
+        assertThat(record.<String>getFieldValue("password")).isEqualTo("pass");
+        assertThat(record.<String>getFieldValue("email")).isNull();
+        assertThat(record.getAllFields()).containsExactly(entry("username", "John"), entry("password", "pass"));
+        assertThat(schema.indexOf("password")).isEqualTo(1);
+        assertThat(schema.indexOf("email")).isEqualTo(-1);
+    }
+
+    @Test
+    public void record_copiesValues_wrap_takesOwnership() throws Exception {
+        DataRecordSchema schema = DataRecordSchema.of("a");
+        Object[] values = { "before" };
+
+        DataRecord copied = schema.record(values);
+        DataRecord wrapped = schema.wrap(values);
+        values[0] = "after";
+
+        assertThat(copied.<String>getFieldValue("a")).isEqualTo("before");
+        assertThat(wrapped.<String>getFieldValue("a")).isEqualTo("after");
+    }
+
+    @Test
+    public void of_sameFieldNames_shareSchema() throws Exception {
+        assertThat(DataRecordSchema.of("a", "b")).isSameAs(DataRecordSchema.of("a", "b"));
+        assertThat(DataRecordSchema.of("a", "b")).isNotEqualTo(DataRecordSchema.of("b", "a"));
+    }
+
+    @Test
+    public void builder_buildsSchemaRecords() throws Exception {
+        DataRecord record = BasicDataRecord.builder().setField("one", 1).setField("two", 2).build();
+
+        assertThat(record).isInstanceOf(SchemaDataRecord.class);
+        assertThat(record.getAllFields()).containsExactly(entry("one", 1), entry("two", 2));
+    }
+
+    @Test
+    public void of_duplicateFieldName() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(String.format(DataRecordSchema.ERROR_DUPLICATE_FIELD, "a"));
+
+        DataRecordSchema.of("a", "b", "a");
+    }
+
+    @Test
+    public void record_valueCountMismatch() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(String.format(DataRecordSchema.ERROR_VALUE_COUNT, 2, "[a, b]", 1));
+
+        DataRecordSchema.of("a", "b").record("value");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getAllFields_isReadOnly() throws Exception {
+        DataRecordSchema.of("a").record("value").getAllFields().put("b", "other");
+    }
+}
@@ -7,13 +7,19 @@ import static com.ericsson.de.scenarios.api.RxApiImpl.scenario;
 import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
 import static com.google.common.collect.Lists.newArrayList;
 
+import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import com.ericsson.de.scenarios.Node;
 import com.ericsson.de.scenarios.impl.ScenarioTest;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
 
 /*
  * COPYRIGHT Ericsson (c) 2017.
@@ -104,6 +110,181 @@ public class DataSourceDefinitionTest {
         assertThat(shared.toString()).isEqualTo("shared Data Source 'numbers'");
         assertThat(cyclic.toString()).isEqualTo("cyclic Data Source 'numbers'");
         assertThat(sharedCyclic.toString()).isEqualTo("shared, cyclic Data Source 'numbers'");
+        assertThat(plain.streaming().toString()).isEqualTo("streaming Data Source 'numbers'");
+    }
+
+    @Test
+    public void shouldIterateOnceWithoutPredicate() throws Exception {
+        CountingIterable counting = new CountingIterable(iterable);
+        ScenarioTest.Counter counter = new ScenarioTest.Counter();
+        Scenario scenario = scenario().addFlow(flow("1").addTestStep(counter).withDataSources(fromIterable("dataSource", counting).shared()))
+                .build();
+        counting.iterations = 0;
+
+        RxApiImpl.run(scenario);
+
+        counter.assertEqualTo(iterable.size());
+        assertThat(counting.iterations).isEqualTo(1);
+    }
+
+    @Test
+    public void streaming_shouldIterateOnEachUse() throws Exception {
+        CountingIterable plain = new CountingIterable(iterable);
+        CountingIterable streaming = new CountingIterable(iterable);
+        ScenarioTest.Counter plainCounter = new ScenarioTest.Counter();
+        ScenarioTest.Counter streamingCounter = new ScenarioTest.Counter();
+        DataSource<Integer> parent = fromIterable("parent", newArrayList(1, 2));
+
+        Scenario scenario = scenario()
+                .addFlow(flow("plain").addSubFlow(flow().addTestStep(plainCounter).withDataSources(fromIterable("plain", plain)))
+                        .withDataSources(parent))
+                .addFlow(flow("streaming").addSubFlow(
+                        flow().addTestStep(streamingCounter).withDataSources(fromIterable("streaming", streaming).streaming()))
+                        .withDataSources(parent)).build();
+        plain.iterations = 0;
+        streaming.iterations = 0;
+
+        RxApiImpl.run(scenario);
+
+        plainCounter.assertEqualTo(iterable.size() * 2);
+        streamingCounter.assertEqualTo(iterable.size() * 2);
+        assertThat(plain.iterations).isEqualTo(1);
+        assertThat(streaming.iterations).isEqualTo(2);
+    }
+
+    @Test
+    public void infiniteDataSource_withRunWhile_shouldReadOnlyRequestedDataRecords() throws Exception {
+        final AtomicInteger read = new AtomicInteger();
+        Iterable<Integer> infinite = new Iterable<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new AbstractIterator<Integer>() {
+                    @Override
+                    protected Integer computeNext() {
+                        return read.incrementAndGet();
+                    }
+                };
+            }
+        };
+        ScenarioTest.Counter counter = new ScenarioTest.Counter();
+
+        Scenario scenario = scenario()
+                .addFlow(flow().addTestStep(counter).withDataSources(fromIterable("infinite", infinite)).runWhile(times(5))).build();
+        read.set(0);
+
+        RxApiImpl.run(scenario);
+
+        counter.assertEqualTo(5);
+        assertThat(read.get()).isGreaterThanOrEqualTo(5).isLessThan(1000);
+    }
+
+    @Test
+    public void streaming_shouldCloseIterator_whenFlowStopsEarly() throws Exception {
+        ClosingDataSource dataSource = new ClosingDataSource();
+        ScenarioTest.Counter counter = new ScenarioTest.Counter();
+
+        Scenario scenario = scenario()
+                .addFlow(flow().addTestStep(counter).withDataSources(dataSource.streaming()).runWhile(times(5))).build();
+
+        RxApiImpl.run(scenario);
+
+        counter.assertEqualTo(5);
+        assertThat(dataSource.opened.get()).isEqualTo(1);
+        assertThat(dataSource.closed.get()).isEqualTo(1);
+    }
+
+    private static Predicate<DataRecordWrapper> times(final int times) {
+        return new Predicate<DataRecordWrapper>() {
+            final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public boolean apply(DataRecordWrapper input) {
+                return count.incrementAndGet() <= times;
+            }
+        };
+    }
+
+    @Test
+    public void streaming_shouldBeKeptOnCopy() throws Exception {
+        DataSource<Integer> streaming = fromIterable("dataSource", iterable).streaming();
+
+        assertThat(fromIterable("dataSource", iterable).isStreaming()).isFalse();
+        assertThat(streaming.isStreaming()).isTrue();
+        assertThat(streaming.shared().cyclic().isStreaming()).isTrue();
+        assertThat(streaming.filterField("dataSource").equalTo(1).isStreaming()).isTrue();
+    }
+
+    @Test
+    public void sizeHint_knownForCollections() throws Exception {
+        DataSource<Integer> collection = fromIterable("dataSource", iterable);
+        DataSource<Integer> counted = fromIterable("dataSource", new CountingIterable(iterable));
+
+        assertThat(collection.getSizeHint()).isEqualTo(Optional.of(3));
+        assertThat(collection.shared().cyclic().getSizeHint()).isEqualTo(Optional.of(3));
+        assertThat(collection.filterField("dataSource").equalTo(1).getSizeHint()).isEqualTo(Optional.absent());
+        assertThat(collection.filterField("dataSource").equalTo(1).getSize()).isEqualTo(1);
+        assertThat(counted.getSizeHint()).isEqualTo(Optional.absent());
+        assertThat(counted.getSize()).isEqualTo(3);
+    }
+
+    /**
+     * Infinite Data Source, which counts opened and closed iterators
+     */
+    private static class ClosingDataSource extends DataSource<DataRecord> {
+
+        private final AtomicInteger opened;
+        private final AtomicInteger closed;
+
+        ClosingDataSource() {
+            this(new AtomicInteger(), new AtomicInteger());
+        }
+
+        private ClosingDataSource(AtomicInteger opened, AtomicInteger closed) {
+            super("closing", DataRecord.class);
+            this.opened = opened;
+            this.closed = closed;
+        }
+
+        @Override
+        protected Iterator<? extends DataRecord> getIterator() {
+            opened.incrementAndGet();
+            return new ClosingIterator();
+        }
+
+        @Override
+        protected DataSource<DataRecord> newDefinition() {
+            return new ClosingDataSource(opened, closed);
+        }
+
+        private class ClosingIterator extends AbstractIterator<DataRecord> implements Closeable {
+            private int value = 0;
+
+            @Override
+            protected DataRecord computeNext() {
+                return BasicDataRecord.fromValues("value", value++);
+            }
+
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        }
+    }
+
+    private static class CountingIterable implements Iterable<Integer> {
+
+        private final Iterable<Integer> delegate;
+        private int iterations;
+
+        CountingIterable(Iterable<Integer> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            iterations++;
+            return delegate.iterator();
+        }
     }
 
     @Test
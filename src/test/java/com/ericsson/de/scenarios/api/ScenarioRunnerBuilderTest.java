@@ -16,6 +16,8 @@ import static com.ericsson.de.scenarios.api.TestStep.ERROR_PARAMETER_ALREADY_SET
 import static com.ericsson.de.scenarios.api.TestStep.ERROR_PARAMETER_NULL;
 
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Rule;
@@ -62,6 +64,30 @@ public class ScenarioRunnerBuilderTest {
         builder.withGraphExportMode(GRAPH_ML).withGraphExportMode(SVG);
     }
 
+    @Test
+    public void withWorkerPool_exception_whenCalledTwice() throws Exception {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage(format(ERROR_PARAMETER_ALREADY_SET, "workerPool"));
+
+        builder.withWorkerPool(1, 1, TimeUnit.MINUTES).withWorkerPool(2, 1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void withStreamingResults_exception_whenCalledTwice() throws Exception {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage(format(ERROR_PARAMETER_ALREADY_SET, "streamResults"));
+
+        builder.withStreamingResults().withStreamingResults();
+    }
+
+    @Test
+    public void withVirtualThreads_exception_whenWorkerPoolAlreadySet() throws Exception {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage(format(ERROR_PARAMETER_ALREADY_SET, "workerPool"));
+
+        builder.withExecutor(Executors.newCachedThreadPool()).withVirtualThreads();
+    }
+
     @Test
     public void addListener_exception_whenDuplicate() throws Exception {
         thrown.expect(IllegalStateException.class);
@@ -1,15 +1,34 @@
 package com.ericsson.de.scenarios.impl;
 
+import static java.util.Arrays.asList;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import com.ericsson.de.scenarios.api.DataRecord;
+import com.ericsson.de.scenarios.api.DataSource;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public class CsvReaderTest {
 
@@ -22,11 +41,16 @@ public class CsvReaderTest {
     private static final String CSV_WITH_MIX_QUOTED = "csv/fromCsvTest_MixQuoted.csv";
     private static final String CSV_WITH_COMMENTED_ROWS = "csv/fromCsvTest_CommentedOut.csv";
     private static final String CSV_WITH_SPECIAL_CHARACTERS = "csv/fromCsvTest_SpecialCharacters.csv";
+    private static final String CSV_GZIPPED = "csv/fromCsvTest.csv.gz";
+    private static final Map<String, Class<?>> ID_LONG = ImmutableMap.<String, Class<?>>of("id", Long.class);
     private static final String[] SPECIAL_CHARACTERS = new String[] { "_", " ", "/", "=", ".", "*", "(", ")", ":", ";", "|", "[", "]", "^" };
 
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void read_csvDataRecord() {
         List<DataRecord> dataRecords = CsvReader.read(CSV);
@@ -102,6 +126,120 @@ public class CsvReaderTest {
         assertThat(secondRecord.get("email,phone")).isEqualTo("mike.qwerty@gmail.com,73485753");
     }
 
+    @Test
+    public void read_gzippedCsv() {
+        List<DataRecord> dataRecords = CsvReader.read(CSV_GZIPPED);
+        assertThat(dataRecords).hasSize(2);
+        assertThat(dataRecords.get(1).getAllFields().get("username")).isEqualTo("Mike");
+    }
+
+    @Test
+    public void read_csvFromFileSystem() throws Exception {
+        File csv = folder.newFile("users.csv");
+        Files.write(csv.toPath(), asList("username,password", "John,pass"), StandardCharsets.UTF_8);
+
+        List<DataRecord> dataRecords = CsvReader.read(csv.getAbsolutePath());
+        assertThat(dataRecords).hasSize(1);
+        assertThat(dataRecords.get(0).getAllFields().get("password")).isEqualTo("pass");
+    }
+
+    @Test
+    public void iterate_parsesRowsOnDemand() throws Exception {
+        File csv = folder.newFile("broken.csv");
+        Files.write(csv.toPath(), asList("username,password", "John,pass", "Mike"), StandardCharsets.UTF_8);
+
+        try (CsvReader.RecordIterator records = CsvReader.iterate(csv.getAbsolutePath(), Collections.<String, Class<?>>emptyMap())) {
+            assertThat(records.next().getAllFields().get("username")).isEqualTo("John");
+        }
+    }
+
+    @Test
+    public void read_typedColumns_convertedWhenParsed() {
+        List<DataRecord> dataRecords = CsvReader.read(CSV, ImmutableMap.<String, Class<?>>of("phone", long.class));
+
+        assertThat(dataRecords.get(0).<Object>getFieldValue("phone")).isEqualTo(7444444L);
+        assertThat(dataRecords.get(0).<Object>getFieldValue("username")).isEqualTo("John");
+    }
+
+    @Test
+    public void read_typedColumns_reportsRowAndColumn() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(String.format(CsvReader.ERROR_CONVERSION_TEMPLATE, "John", 1, "username", "Integer"));
+
+        Iterator<DataRecord> records = CsvReader.iterate(CSV, ImmutableMap.<String, Class<?>>of("username", Integer.class));
+        records.next();
+    }
+
+    @Test
+    public void fromCsv_columnTypesFromGetters() {
+        DataSource<User> dataSource = RxApi.fromCsv("users", CSV, User.class);
+
+        DataRecord first = dataSource.iterator().next();
+        assertThat(first.<Object>getFieldValue("phone")).isEqualTo(7444444L);
+        assertThat(first.<Object>getFieldValue("email")).isEqualTo("john.doe@gmail.com");
+    }
+
+    @Test
+    public void iterateParallel_ordered_returnsRecordsInFileOrder() throws Exception {
+        File csv = largeCsv(10_000);
+
+        List<DataRecord> records = Lists.newArrayList(CsvReader.iterateParallel(csv.getAbsolutePath(), ID_LONG, 4, true, 4096));
+
+        assertThat(records).hasSize(10_000);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i).<Object>getFieldValue("id")).isEqualTo((long) i);
+        }
+    }
+
+    @Test
+    public void iterateParallel_unordered_returnsAllRecords() throws Exception {
+        File csv = largeCsv(10_000);
+
+        Set<Object> ids = Sets.newHashSet();
+        Iterator<DataRecord> records = CsvReader.iterateParallel(csv.getAbsolutePath(), ID_LONG, 4, false, 4096);
+        while (records.hasNext()) {
+            ids.add(records.next().getFieldValue("id"));
+        }
+
+        assertThat(ids).hasSize(10_000).contains(0L, 9_999L);
+    }
+
+    @Test
+    public void iterateParallel_reportsRowOfConversionError() throws Exception {
+        File csv = folder.newFile("broken.csv");
+        Files.write(csv.toPath(), asList("# comment", "id,name", "1,a", "x,b"), StandardCharsets.UTF_8);
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(String.format(CsvReader.ERROR_CONVERSION_TEMPLATE, "x", "2 after byte 18", "id", "Long"));
+
+        Lists.newArrayList(CsvReader.iterateParallel(csv.getAbsolutePath(), ID_LONG, 2, true));
+    }
+
+    /**
+     * Compares parsing time of large CSV by 1, 4 and 16 threads
+     */
+    @Test
+    @Ignore("benchmark")
+    public void benchmark_parallelParsing() throws Exception {
+        File csv = largeCsv(5_000_000);
+        for (int parallelism : asList(1, 4, 16, 1, 4, 16)) {
+            Stopwatch timer = Stopwatch.createStarted();
+            int count = Iterators.size(CsvReader.iterateParallel(csv.getAbsolutePath(), ID_LONG, parallelism, true));
+            System.out.println(parallelism + " threads: " + count + " records in " + timer.elapsed(TimeUnit.MILLISECONDS) + " ms");
+        }
+    }
+
+    private File largeCsv(int rows) throws IOException {
+        File csv = folder.newFile("large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("id,username,email,phone\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + ",user" + i + ",user" + i + "@example.com,\"+353 " + i + "\"\n");
+            }
+        }
+        return csv;
+    }
+
     @Test
     public void read_commentedOutRows() {
         List<DataRecord> dataRecords = CsvReader.read(CSV_WITH_COMMENTED_ROWS);
@@ -154,4 +292,10 @@ public class CsvReaderTest {
         thrown.expectMessage(CsvReader.ERROR_DATA_RECORD_LIST_EMPTY);
         CsvReader.read(CSV_WITH_EMPTY_FILE);
     }
+
+    public interface User extends DataRecord {
+        String getEmail();
+
+        long getPhone();
+    }
 }
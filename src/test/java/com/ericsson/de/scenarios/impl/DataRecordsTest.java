@@ -11,6 +11,7 @@ import com.ericsson.de.scenarios.Node;
 import com.ericsson.de.scenarios.api.BasicDataRecord;
 import com.ericsson.de.scenarios.api.DataRecord;
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 /*
@@ -247,6 +248,68 @@ public class DataRecordsTest extends ScenarioTest {
         assertThat(input(wrapper1, "level1.level2.level3")).isEqualTo(DR1_VALUE1);
     }
 
+    @Test
+    public void testFieldPath() throws Exception {
+        FieldPath simple = FieldPath.of(DR_NAME1);
+        assertThat(simple.isSimple()).isTrue();
+        assertThat(simple.head).isEqualTo(DR_NAME1);
+
+        FieldPath nested = FieldPath.of(DS_NAME_1 + ".level1.level2");
+        assertThat(nested.head).isEqualTo(DS_NAME_1);
+        assertThat(nested.tail.name).isEqualTo("level1.level2");
+        assertThat(nested.tail.head).isEqualTo("level1");
+        assertThat(nested.tail.tail.name).isEqualTo("level2");
+        assertThat(nested.tail.tail.isSimple()).isTrue();
+    }
+
+    @Test
+    public void testIterationNumbers() throws Exception {
+        DataRecordWrapper first = new DataRecords.Single(DS_NAME_1, new DefaultDataRecordTransformer(), 12, testDataRecord1);
+        DataRecordWrapper second = new DataRecords.Single(DS_NAME_2, new DefaultDataRecordTransformer(), 3, testDataRecord1);
+        DataRecordWrapper dataRecord = new DataRecords.Parent(new DataRecords.Empty("context"),
+                new DataRecords.Parent(new DataRecords.Multiple(first, second), first));
+
+        int[] numbers = DataRecords.iterationNumbers(dataRecord);
+
+        assertThat(DataRecords.renderIteration(numbers)).isEqualTo(dataRecord.getIteration()).isEqualTo("12.12-3.0");
+        assertThat(DataRecords.iterationNumbers(new DataRecords.Multiple())).isEmpty();
+    }
+
+    @Test
+    public void testFieldPathCache() throws Exception {
+        FieldPath.Cache paths = new FieldPath.Cache(ImmutableList.of(DS_NAME_1 + ".level1.level2", DR_NAME1, DR_NAME1));
+        assertThat(paths.size()).isEqualTo(2);
+        assertThat(paths.get(DS_NAME_1 + ".level1.level2")).isSameAs(paths.get(DS_NAME_1 + ".level1.level2"));
+
+        FieldPath dynamic = paths.get(DR_NAME2);
+        assertThat(dynamic.name).isEqualTo(DR_NAME2);
+        assertThat(paths.get(DR_NAME2)).isSameAs(dynamic);
+        assertThat(paths.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testParameterWrapper() throws Exception {
+        Map<String, Object> parameters = ImmutableMap.of(DS_NAME_1 + "." + DR_NAME1, (Object) OVERRIDEN_VALUE_1);
+        Map<String, String> bindings = ImmutableMap.of("bound", DS_NAME_2 + "." + DR_NAME2, "nested", DS_NAME_2 + ".record." + DR_NAME1);
+        DataRecords.ParameterWrapper wrapper = new DataRecords.ParameterWrapper(parameters, bindings);
+
+        DataRecord nested = BasicDataRecord.fromValues(DR_NAME1, DR1_VALUE1);
+        DataRecord withNested = BasicDataRecord.fromValues(DR_NAME2, DR2_VALUE2, "record", nested);
+        for (int i = 0; i < 2; i++) {
+            DataRecordWrapper dataRecord = new DataRecords.Parent(getDataRecords(DS_NAME_1, testDataRecord1),
+                    getDataRecords(DS_NAME_2, withNested));
+            DataRecordWrapper dataRecords = wrapper.apply(dataRecord);
+
+            assertThat(input(dataRecords, DR_NAME1)).isEqualTo(OVERRIDEN_VALUE_1);
+            assertThat(input(dataRecords, DR_NAME2)).isEqualTo(DR1_VALUE2);
+            assertThat(input(dataRecords, "bound")).isEqualTo(DR2_VALUE2);
+            assertThat(input(dataRecords, "nested")).isEqualTo(DR1_VALUE1);
+            assertThat(dataRecords.getFieldValue("unknown", String.class).isPresent()).isFalse();
+        }
+        assertThat(wrapper.paths.get(DR_NAME1)).isSameAs(wrapper.paths.get(DR_NAME1));
+        assertThat(wrapper.paths.size()).isEqualTo(8);
+    }
+
     @Test
     public void testSimpleStringConversions() throws Exception {
         DataRecord fromCsv = BasicDataRecord.builder().setField("string", "value").setField("integer", "1").setField("boolean", "true")
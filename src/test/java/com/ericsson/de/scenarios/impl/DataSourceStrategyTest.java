@@ -14,11 +14,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import static com.ericsson.de.scenarios.impl.RxApi.fromDataRecords;
 
+import java.util.List;
+import java.util.Set;
+
 import org.junit.Test;
 
 import com.ericsson.de.scenarios.Node;
+import com.ericsson.de.scenarios.api.DataRecordWrapper;
 import com.ericsson.de.scenarios.api.DataSource;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+
+import rx.functions.Action1;
 
 public class DataSourceStrategyTest extends ScenarioTest {
 
@@ -56,6 +63,40 @@ public class DataSourceStrategyTest extends ScenarioTest {
         assertThat(totalIterationCount).isEqualTo(Iterables.size(shared));
     }
 
+    @Test(timeout = 10000L)
+    public void cyclicStreaming() throws Exception {
+        DataSource<Node> copied = fromDataRecords("copied", getNode("1", "2", 3), getNode("1", "2", 3), getNode("1", "2", 3));
+
+        DataSource<Node> cyclic = fromDataRecords("cyclic", getNode("1", "2", 3), getNode("1", "2", 3)).cyclic().streaming();
+
+        DataSource<Node> shared = fromDataRecords("shared", getNode("1", "2", 3), getNode("1", "2", 3)).cyclic().streaming().shared();
+
+        DataSourceStrategy multiple = DataSourceStrategy.fromDefinitions(new DataSource[] { copied, cyclic, shared }, 2);
+
+        Integer totalIterationCount = multiple.provide().count().toBlocking().single();
+        assertThat(totalIterationCount).isEqualTo(Iterables.size(copied) * 2);
+    }
+
+    @Test(timeout = 10000L)
+    public void cyclic_isEmittedOnSubscribingThread() throws Exception {
+        DataSource<Node> copied = fromDataRecords("copied", getNode("1", "2", 3), getNode("1", "2", 3), getNode("1", "2", 3));
+
+        DataSource<Node> cyclic = fromDataRecords("cyclic", getNode("1", "2", 3), getNode("1", "2", 3)).cyclic();
+
+        final Set<Thread> threads = Sets.newConcurrentHashSet();
+        DataSourceStrategy multiple = DataSourceStrategy.fromDefinitions(new DataSource[] { copied, cyclic }, 1);
+
+        List<DataRecordWrapper> dataRecords = multiple.provide().doOnNext(new Action1<DataRecordWrapper>() {
+            @Override
+            public void call(DataRecordWrapper dataRecord) {
+                threads.add(Thread.currentThread());
+            }
+        }).toList().toBlocking().single();
+
+        assertThat(dataRecords).hasSize(3);
+        assertThat(threads).containsOnly(Thread.currentThread());
+    }
+
     @Test(timeout = 10000L)
     public void cyclicCopied() throws Exception {
         DataSource<Node> largerCopied = fromDataRecords("largerCopied", getNode("1", "2", 3), getNode("1", "2", 3), getNode("1", "2", 3),
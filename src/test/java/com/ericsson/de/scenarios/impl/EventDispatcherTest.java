@@ -0,0 +1,142 @@
+package com.ericsson.de.scenarios.impl;
+
+import static java.util.Arrays.asList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.ericsson.de.scenarios.api.ScenarioListener;
+import com.ericsson.de.scenarios.api.events.Event;
+import com.ericsson.de.scenarios.api.events.ScenarioEvent;
+import com.ericsson.de.scenarios.api.events.TestStepEvent;
+import com.google.common.eventbus.Subscribe;
+
+public class EventDispatcherTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final List<String> calls = newArrayList();
+
+    @Test
+    public void route_isEmpty_whenNoListenerSubscribesToEventType() throws Exception {
+        EventDispatcher dispatcher = new EventDispatcher(asList(new Object() {
+            @Subscribe
+            public void onScenarioStarted(ScenarioEvent.ScenarioStartedEvent event) {
+            }
+        }));
+
+        assertThat(dispatcher.route(ScenarioEvent.ScenarioStartedEvent.class).isEmpty()).isFalse();
+        assertThat(dispatcher.route(ScenarioEventBus.InternalTestStepStartedEvent.class).isEmpty()).isTrue();
+    }
+
+    @Test(timeout = 10000L)
+    public void concurrentResultSink_receivesResultsFromMultipleThreadsAtOnce() throws Exception {
+        final CyclicBarrier bothInSink = new CyclicBarrier(2);
+        RxResultSink sink = new RxResultSink() {
+            @Override
+            public void onResult(RxTestStepResult result) {
+                try {
+                    bothInSink.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public void onFinished() {
+            }
+        };
+        final EventDispatcher dispatcher = new EventDispatcher(asList(new ResultSinkListener.Concurrent(sink)));
+        final Object event = mock(ScenarioEventBus.InternalTestStepFinishedEvent.class);
+
+        Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.post(event);
+            }
+        });
+        other.start();
+        dispatcher.post(event);
+        other.join();
+
+        assertThat(bothInSink.isBroken()).isFalse();
+    }
+
+    @Test
+    public void post_callsOverriddenAndSupertypeSubscribers_inEventBusOrder() throws Exception {
+        ScenarioListener listener = new ScenarioListener() {
+            @Override
+            public void onScenarioStarted(ScenarioEvent.ScenarioStartedEvent event) {
+                calls.add("overridden");
+            }
+        };
+        Object anyEvent = new Object() {
+            @Subscribe
+            public void onEvent(Event event) {
+                calls.add("event");
+            }
+        };
+        EventDispatcher dispatcher = new EventDispatcher(asList(anyEvent, listener, listener));
+
+        dispatcher.post(new ScenarioEvent.ScenarioStartedEvent(null));
+
+        assertThat(calls).containsExactly("overridden", "event");
+    }
+
+    @Test
+    public void post_continues_whenSubscriberThrows() throws Exception {
+        EventDispatcher dispatcher = new EventDispatcher(asList(new ScenarioListener() {
+            @Override
+            public void onScenarioStarted(ScenarioEvent.ScenarioStartedEvent event) {
+                throw new IllegalStateException("listener failure");
+            }
+        }, new ScenarioListener() {
+            @Override
+            public void onScenarioStarted(ScenarioEvent.ScenarioStartedEvent event) {
+                calls.add("second");
+            }
+        }));
+
+        dispatcher.post(new ScenarioEvent.ScenarioStartedEvent(null));
+
+        assertThat(calls).containsExactly("second");
+    }
+
+    @Test
+    public void post_rethrowsError_whenSubscriberThrowsError() throws Exception {
+        EventDispatcher dispatcher = new EventDispatcher(asList(new ScenarioListener() {
+            @Override
+            public void onScenarioStarted(ScenarioEvent.ScenarioStartedEvent event) {
+                throw new AssertionError("listener assertion");
+            }
+        }));
+
+        thrown.handleAssertionErrors();
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("listener assertion");
+
+        dispatcher.post(new ScenarioEvent.ScenarioStartedEvent(null));
+    }
+
+    @Test
+    public void subscriber_shouldHaveOneParameter() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Subscriber methods must have exactly 1 parameter");
+
+        new EventDispatcher(asList(new Object() {
+            @Subscribe
+            public void onEvent(TestStepEvent event, String extra) {
+            }
+        }));
+    }
+}
@@ -6,6 +6,11 @@ import static com.ericsson.de.scenarios.api.RxApiImpl.flow;
 import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
 import static com.google.common.collect.Lists.newArrayList;
 
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -127,6 +132,30 @@ public class FlowBuilderTest {
         assertThat(rxFlow.dataSource.vUsers).isEqualTo(10);
     }
 
+    @Test
+    public void withVUsersAuto_shouldNotIterateDataSource_whenSizeIsKnown() throws Exception {
+        final List<Integer> numbers = newArrayList(1, 2, 3);
+        final AtomicInteger iterations = new AtomicInteger();
+        DataSource<Integer> dataSource = fromIterable("known", new AbstractCollection<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                iterations.incrementAndGet();
+                return numbers.iterator();
+            }
+
+            @Override
+            public int size() {
+                return numbers.size();
+            }
+        }).shared();
+        iterations.set(0);
+
+        RxFlow rxFlow = nopFlow.withVUsersAuto().withDataSources(dataSource).build();
+
+        assertThat(rxFlow.dataSource.vUsers).isEqualTo(numbers.size());
+        assertThat(iterations.get()).isEqualTo(0);
+    }
+
     @Test
     public void withDataSources_shouldThrowIllegalStateException_whenCalledMoreThanOnce() throws Exception {
         thrown.expect(IllegalStateException.class);
@@ -20,7 +20,12 @@ import static com.ericsson.de.scenarios.impl.RxApi.runnable;
 import static com.google.common.collect.Lists.newArrayList;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import javax.inject.Named;
 
 import org.junit.Test;
 
@@ -34,14 +39,17 @@ import com.ericsson.de.scenarios.impl.Internals.Chunk;
 import com.ericsson.de.scenarios.impl.Internals.Exec;
 import com.ericsson.de.scenarios.impl.Internals.InternalScenarioContext;
 import com.ericsson.de.scenarios.impl.Internals.TestStepResult;
+import com.ericsson.de.scenarios.impl.Internals.VUser;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class ImplementationTest extends ScenarioTest {
 
     private RxScenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(nop())).build();
-    private FlowExecutionContext flowContext = createScenarioFlowContext(scenario, mock(ScenarioEventBus.class), ExceptionHandler.PROPAGATE);
+    private FlowExecutionContext flowContext =
+            createScenarioFlowContext(scenario, mock(ScenarioEventBus.class), new WorkerPool(), ExceptionHandler.PROPAGATE);
 
     @Test
     public void runInParallel() throws Exception {
@@ -112,6 +120,103 @@ public class ImplementationTest extends ScenarioTest {
         assertThat(testSteps.get(2).isFailed()).isFalse();
     }
 
+    @Test
+    public void runInParallel_reusesWorkerPoolThreads() throws Exception {
+        WorkerPool workerPool = new WorkerPool(1, 1, TimeUnit.MINUTES);
+        FlowExecutionContext context = createScenarioFlowContext(scenario, mock(ScenarioEventBus.class), workerPool, ExceptionHandler.PROPAGATE);
+
+        Chunk chunk = new Chunk();
+        chunk.testSteps.add(print("ts1"));
+
+        int runs = 5;
+        for (int i = 0; i < runs; i++) {
+            Exec parent = Exec.rootExec(Maps.<String, Object>newHashMap());
+            List<Exec> execs = asList(parent.child("rxFlow", 1, getDataRecords("ds_name", "a")),
+                    parent.child("rxFlow", 2, getDataRecords("ds_name", "b")), parent.child("rxFlow", 3, getDataRecords("ds_name", "c")));
+
+            Implementation.runInParallel(context, execs).call(chunk);
+
+            for (Exec exec : execs) {
+                assertThat(exec.getExecutedTestSteps()).hasSize(1);
+            }
+        }
+
+        assertThat(workerPool.getLargestPoolSize()).isLessThan(runs * 3);
+    }
+
+    @Test
+    public void runInParallel_runsVUsers_onCustomExecutor() throws Exception {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("custom-%d").build();
+        WorkerPool workerPool = new WorkerPool(Executors.newCachedThreadPool(threadFactory));
+        FlowExecutionContext context = createScenarioFlowContext(scenario, mock(ScenarioEventBus.class), workerPool, ExceptionHandler.PROPAGATE);
+
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        Chunk chunk = new Chunk();
+        chunk.testSteps.add(runnable(new Runnable() {
+            @Override
+            public void run() {
+                threads.add(Thread.currentThread().getName());
+            }
+        }));
+
+        Exec parent = Exec.rootExec(Maps.<String, Object>newHashMap());
+        List<Exec> execs = asList(parent.child("rxFlow", 1, getDataRecords("ds_name", "a")), parent.child("rxFlow", 2, getDataRecords("ds_name", "b")));
+        Implementation.runInParallel(context, execs).call(chunk);
+
+        assertThat(threads).hasSize(2);
+        for (String thread : threads) {
+            assertThat(thread).startsWith("custom-");
+        }
+    }
+
+    @Test
+    public void workerPool_poolSize_isUnknown_forCustomExecutor() throws Exception {
+        WorkerPool workerPool = new WorkerPool(Executors.newSingleThreadExecutor());
+
+        assertThat(workerPool.getPoolSize()).isEqualTo(-1);
+        assertThat(workerPool.getLargestPoolSize()).isEqualTo(-1);
+    }
+
+    @Test(timeout = 10000L)
+    public void runFlow_nestedSubflows_shouldNotDeadlock_onSmallWorkerPool() throws Exception {
+        RxScenario nestedScenario = Api.scenario().addFlow(Api.flow().addTestStep(nop())
+                .addSubFlow(Api.flow().addTestStep(nop()).addSubFlow(Api.flow().addTestStep(nop()).withVUsers(2)).withVUsers(2)).withVUsers(2))
+                .build();
+        WorkerPool workerPool = new WorkerPool(1, 1, TimeUnit.MINUTES);
+        FlowExecutionContext context = createScenarioFlowContext(nestedScenario, mock(ScenarioEventBus.class), workerPool, ExceptionHandler.PROPAGATE);
+
+        List<Internals.FlowExecutionResult> results = Implementation.runFlow(context).toList().toBlocking().single();
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).isFailed()).isFalse();
+    }
+
+    @Test(timeout = 10000L)
+    public void runFlow_continuousVUsers_allocatesVUsersOfParentExecution() throws Exception {
+        final List<String> vUsers = new CopyOnWriteArrayList<>();
+        final CountDownLatch allVUsersStarted = new CountDownLatch(4);
+        InlineInvocation collectVUser = new InlineInvocation() {
+            @SuppressWarnings("unused")
+            void collect(@Named("vUser") VUser vUser) throws InterruptedException {
+                vUsers.add(vUser.getId());
+                allVUsersStarted.countDown();
+                allVUsersStarted.await(5, TimeUnit.SECONDS);
+            }
+        };
+
+        RxScenario continuousScenario = Api.scenario().withParameter(STORE_V_USERS_IN_CONTEXT, true).addFlow(Api.flow().addTestStep(nop())
+                .addSubFlow(Api.flow().addTestStep(collectVUser).withDataSources(RxApi.fromIterable("subFlow", numbers(6)).shared()).withVUsers(2)
+                        .withContinuousVUsers()).withDataSources(RxApi.fromIterable("flow", numbers(2)).shared()).withVUsers(2)).build();
+        FlowExecutionContext context = createScenarioFlowContext(continuousScenario, mock(ScenarioEventBus.class), new WorkerPool(),
+                ExceptionHandler.PROPAGATE);
+
+        List<Internals.FlowExecutionResult> results = Implementation.runFlow(context).toList().toBlocking().single();
+
+        assertThat(results.get(0).isFailed()).isFalse();
+        assertThat(vUsers).hasSize(6);
+        assertThat(vUsers).containsOnly("1.1.1", "1.1.2", "1.2.1", "1.2.2");
+    }
+
     @Test
     public void testScopeOfContext() throws Exception {
         InternalScenarioContext scenarioContext = new InternalScenarioContext(Maps.<String, Object>newHashMap());
@@ -1,11 +1,20 @@
 package com.ericsson.de.scenarios.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.junit.Test;
 
+import com.ericsson.de.scenarios.api.DataRecord;
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
+import com.ericsson.de.scenarios.api.TestStep;
 import com.ericsson.de.scenarios.impl.Internals.Exec;
+import com.ericsson.de.scenarios.impl.Internals.TestStepResult;
 import com.ericsson.de.scenarios.impl.Internals.VUser;
 import com.google.common.collect.Maps;
 
@@ -41,6 +50,60 @@ public class InternalsTest extends ScenarioTest {
         assertThat(child2.dataRecord).isSameAs(dataRecord2);
     }
 
+    @Test
+    public void exec_streamingResults_keepsOnlyErrorsAndTimeFrame() throws Exception {
+        Exec child = Exec.rootExec(Maps.<String, Object>newHashMap(), false).child("flow1", 1, getDataRecords("ds_name", "1"));
+        VeryExpectedException error = new VeryExpectedException();
+
+        child.addExecutedTestStep(new TestStepResult("id1", "step1", 10, 20, null, null, TestStep.Status.SUCCESS));
+        child.addExecutedTestStep(new TestStepResult("id2", "step2", 20, 30, null, error, TestStep.Status.FAILED));
+
+        assertThat(child.getExecutedTestSteps()).isEmpty();
+        assertThat(child.errors).containsExactly(error);
+        assertThat(child.getStartTime()).isEqualTo(10);
+        assertThat(child.getEndTime()).isEqualTo(30);
+    }
+
+    @Test
+    public void testStepResult_idIsRenderedOnlyWhenRequested() throws Exception {
+        TestStep testStep = mock(TestStep.class);
+        doReturn(5L).when(testStep).getId();
+        doReturn("step").when(testStep).getName();
+        DataRecordWrapper dataRecord = spy(new DataRecords.Single("ds_name", new DefaultDataRecordTransformer(), 3, mock(DataRecord.class)));
+
+        TestStepResult result = TestStepResult.success(testStep, 0, System.nanoTime(), null, VUser.ROOT.child(1).child(2), dataRecord);
+
+        assertThat(result.getId()).isEqualTo("step5-1.2-3");
+        assertThat(result.getId()).isEqualTo("step5-1.2-3");
+        verify(dataRecord, never()).getIteration();
+    }
+
+    @Test
+    public void testStepResult_foreignDataRecord_idIsRenderedOnCreation() throws Exception {
+        TestStep testStep = mock(TestStep.class);
+        doReturn(5L).when(testStep).getId();
+        DataRecordWrapper dataRecord = mock(DataRecordWrapper.class);
+        doReturn("3").when(dataRecord).getIteration();
+
+        TestStepResult result = TestStepResult.success(testStep, 0, System.nanoTime(), null, VUser.ROOT.child(1), dataRecord);
+        verify(dataRecord, times(1)).getIteration();
+
+        assertThat(result.getId()).isEqualTo("step5-1-3");
+        verify(dataRecord, times(1)).getIteration();
+    }
+
+    @Test
+    public void exec_startLateness_isFixedByFirstTestStep() throws Exception {
+        Exec root = Exec.rootExec(Maps.<String, Object>newHashMap());
+        Exec scheduled = root.child("flow", 1, getDataRecords("ds_name", "1"));
+        Exec notScheduled = root.child("flow", 2, getDataRecords("ds_name", "2"));
+        scheduled.setIntendedStart(1000);
+
+        assertThat(scheduled.startLateness(1500)).isEqualTo(500);
+        assertThat(scheduled.startLateness(9000)).isEqualTo(500);
+        assertThat(notScheduled.startLateness(1500)).isEqualTo(0);
+    }
+
     @Test
     public void vUser_verifyIdComposition() throws Exception {
         VUser parent = VUser.ROOT;
@@ -0,0 +1,89 @@
+package com.ericsson.de.scenarios.impl;
+
+import static java.util.Arrays.asList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.google.common.collect.Iterables.limit;
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.AbstractIterator;
+
+/*
+ * COPYRIGHT Ericsson (c) 2017.
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ */
+
+public class KeptDataRecordsTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger read = new AtomicInteger();
+
+    @Test
+    public void source_isReadOnlyAsFarAsRequested() throws Exception {
+        KeptDataRecords<Integer> dataRecords = new KeptDataRecords<>(source(100), 1);
+
+        assertThat(opened.get()).isEqualTo(0);
+        assertThat(newArrayList(limit(dataRecords, 3))).containsExactly(0, 1, 2);
+        assertThat(read.get()).isEqualTo(3);
+
+        assertThat(newArrayList(limit(dataRecords, 2))).containsExactly(0, 1);
+        assertThat(dataRecords.get(99)).isEqualTo(99);
+        assertThat(dataRecords.get(100)).isNull();
+        assertThat(dataRecords.size()).isEqualTo(100);
+        assertThat(opened.get()).isEqualTo(1);
+        assertThat(read.get()).isEqualTo(100);
+    }
+
+    @Test
+    public void cycle_eachSubscriptionHasOwnCursor_overRecordsKeptOnce() throws Exception {
+        KeptDataRecords<Integer> dataRecords = new KeptDataRecords<>(source(3), 16);
+
+        for (int subscription = 0; subscription < 10; subscription++) {
+            assertThat(newArrayList(limit(dataRecords.cycle(), 7))).containsExactly(0, 1, 2, 0, 1, 2, 0);
+        }
+        assertThat(opened.get()).isEqualTo(1);
+        assertThat(read.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void of_keepsList() throws Exception {
+        KeptDataRecords<String> dataRecords = KeptDataRecords.of(asList("a", "b"));
+
+        assertThat(newArrayList(dataRecords)).containsExactly("a", "b");
+        assertThat(newArrayList(limit(dataRecords.cycle(), 3))).containsExactly("a", "b", "a");
+        assertThat(dataRecords.size()).isEqualTo(2);
+    }
+
+    private Supplier<Iterator<Integer>> source(final int size) {
+        return new Supplier<Iterator<Integer>>() {
+            @Override
+            public Iterator<Integer> get() {
+                opened.incrementAndGet();
+                return new AbstractIterator<Integer>() {
+                    private int next = 0;
+
+                    @Override
+                    protected Integer computeNext() {
+                        if (next == size) {
+                            return endOfData();
+                        }
+                        read.incrementAndGet();
+                        return next++;
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.ericsson.de.scenarios.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_withinRelativeError() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(100_000);
+        assertThat(histogram.getMin()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(100_000_000);
+        assertThat(histogram.getMean()).isEqualTo(50_000_500);
+        assertThat(histogram.getValueAtPercentile(50)).isBetween(50_000_000L, 50_500_000L);
+        assertThat(histogram.getValueAtPercentile(99)).isBetween(99_000_000L, 99_990_000L);
+        assertThat(histogram.getValueAtPercentile(99.9)).isBetween(99_900_000L, 100_000_000L);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000_000);
+    }
+
+    @Test
+    public void smallValues_areExact() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-1);
+
+        assertThat(histogram.getValueAtPercentile(0)).isEqualTo(0);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(3);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(7);
+    }
+
+    @Test
+    public void add_mergesHistograms() throws Exception {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(Long.MAX_VALUE);
+
+        first.add(second);
+
+        assertThat(first.getCount()).isEqualTo(2);
+        assertThat(first.getMin()).isEqualTo(10);
+        assertThat(first.getMax()).isEqualTo(Long.MAX_VALUE);
+        assertThat(first.getValueAtPercentile(50)).isEqualTo(10);
+        assertThat(first.getValueAtPercentile(100)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void empty() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getMin()).isEqualTo(0);
+        assertThat(histogram.getMean()).isEqualTo(0);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(0);
+    }
+}
@@ -2,6 +2,8 @@ package com.ericsson.de.scenarios.impl;
 
 import static java.util.Arrays.asList;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import static com.ericsson.de.scenarios.api.TestStep.Status.FAILED;
 import static com.ericsson.de.scenarios.api.TestStep.Status.SUCCESS;
 
@@ -19,4 +21,34 @@ public class PerformanceReporterTest {
 
         new PerformanceReporter().summary("test", testStepResults);
     }
+
+    @Test
+    public void summary_aggregatesByTestStepName() throws Exception {
+        List<Internals.TestStepResult> testStepResults = asList(new Internals.TestStepResult("step1-1-1", "step1", 0, 100, null, null, SUCCESS),
+                new Internals.TestStepResult("step1-2-1", "step1", 0, 300, null, null, SUCCESS),
+                new Internals.TestStepResult("step2-1-1", "step2", 100, 2000, null, new RuntimeException(), FAILED));
+
+        String summary = new PerformanceReporter().summary("test", testStepResults);
+
+        assertThat(summary).contains("Test duration: 2.000000s").contains("Samples count: 3, 33.33% (1) failures, 1.50 samples/s")
+                .contains("Name: step1, Samples: 2, Errors: 0.00%, Throughput: 1.00/s")
+                .contains("Name: step2, Samples: 1, Errors: 100.00%, Throughput: 0.50/s").contains("p99.9:");
+    }
+
+    @Test
+    public void performanceStatistics_merge() throws Exception {
+        PerformanceStatistics flow1 = new PerformanceStatistics("flow1");
+        PerformanceStatistics flow2 = new PerformanceStatistics("flow2");
+        flow1.onResult(new Internals.TestStepResult("1", "step1", 0, 100, null, null, SUCCESS));
+        flow2.onResult(new Internals.TestStepResult("2", "step1", 1000, 1300, null, null, SUCCESS));
+        flow2.onResult(new Internals.TestStepResult("3", "step2", 1000, 1200, null, new RuntimeException(), FAILED));
+
+        flow1.merge(flow2);
+
+        assertThat(flow1.getDuration()).isEqualTo(1300);
+        assertThat(flow1.getTotal().getServiceTime().getCount()).isEqualTo(3);
+        assertThat(flow1.getTotal().getErrors()).isEqualTo(1);
+        assertThat(flow1.getSteps().keySet()).containsExactly("step1", "step2");
+        assertThat(flow1.getSteps().get("step1").getServiceTime().getCount()).isEqualTo(2);
+    }
 }
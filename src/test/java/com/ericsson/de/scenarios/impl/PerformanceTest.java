@@ -2,23 +2,40 @@ package com.ericsson.de.scenarios.impl;
 
 import static java.lang.Thread.sleep;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 import static com.ericsson.de.scenarios.api.Api.runner;
 import static com.ericsson.de.scenarios.impl.RxApi.during;
 import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
+import static com.ericsson.de.scenarios.impl.RxApi.runnable;
+import static com.ericsson.de.scenarios.impl.ScenarioTest.numbers;
+import static com.google.common.collect.Lists.newArrayList;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Named;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.ericsson.de.scenarios.api.DataSource;
+import com.ericsson.de.scenarios.api.ExceptionHandler;
+import com.ericsson.de.scenarios.api.Flow;
+import com.ericsson.de.scenarios.api.Scenario;
+import com.ericsson.de.scenarios.api.ScenarioListener;
+import com.ericsson.de.scenarios.api.events.TestStepEvent;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Maps;
 
 public class PerformanceTest {
     @Test
@@ -81,4 +98,281 @@ public class PerformanceTest {
         assertThat(HashMultiset.create(stack).count("2")).isGreaterThan(3);
         assertThat(HashMultiset.create(stack).count("3")).isGreaterThan(3);
     }
+
+    @Test
+    public void arrivalRate_constant_schedulesIterationsEvenly() throws Exception {
+        RxArrivalRate.Schedule schedule = new RxArrivalRate.Schedule(RxArrivalRate.constant(10, SECONDS));
+
+        assertThat(schedule.next()).isEqualTo(0);
+        assertThat(schedule.next()).isEqualTo(MILLISECONDS.toNanos(100));
+        assertThat(schedule.next()).isEqualTo(MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void arrivalRate_ramping_increasesRateDuringRampTime() throws Exception {
+        RxArrivalRate.Profile profile = RxArrivalRate.ramping(10, 20, SECONDS, 10, SECONDS);
+
+        assertThat(profile.iterationsPerSecond(0)).isEqualTo(10);
+        assertThat(profile.iterationsPerSecond(SECONDS.toNanos(5))).isEqualTo(15);
+        assertThat(profile.iterationsPerSecond(SECONDS.toNanos(10))).isEqualTo(20);
+        assertThat(profile.iterationsPerSecond(SECONDS.toNanos(60))).isEqualTo(20);
+    }
+
+    @Test
+    public void arrivalRate_stepped_increasesRateEveryStep() throws Exception {
+        RxArrivalRate.Profile profile = RxArrivalRate.stepped(60, 30, TimeUnit.MINUTES, 1, SECONDS);
+
+        assertThat(profile.iterationsPerSecond(0)).isEqualTo(1);
+        assertThat(profile.iterationsPerSecond(MILLISECONDS.toNanos(999))).isEqualTo(1);
+        assertThat(profile.iterationsPerSecond(SECONDS.toNanos(1))).isEqualTo(1.5);
+        assertThat(profile.iterationsPerSecond(SECONDS.toNanos(4))).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void arrivalRate_stepped_shouldNotAcceptNegativeStep() throws Exception {
+        RxArrivalRate.stepped(60, -30, TimeUnit.MINUTES, 1, SECONDS);
+    }
+
+    @Test
+    public void arrivalRate_schedule_endsWhenRateIsNotPositive() throws Exception {
+        RxArrivalRate.Schedule schedule = new RxArrivalRate.Schedule(new RxArrivalRate.Profile() {
+            @Override
+            public double iterationsPerSecond(long elapsedNanos) {
+                return elapsedNanos < SECONDS.toNanos(1) ? 5 : 0;
+            }
+        });
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(schedule.next()).isEqualTo(MILLISECONDS.toNanos(200) * i);
+        }
+        assertThat(schedule.next()).isEqualTo(RxArrivalRate.Schedule.END);
+    }
+
+    @Test
+    public void arrivalRate_stopsLoad_whenRateDropsToZero() throws Exception {
+        RxArrivalRate.Statistics statistics = new RxArrivalRate.Statistics();
+
+        ResultStore results = runArrivalRate(new RxArrivalRate.Profile() {
+            @Override
+            public double iterationsPerSecond(long elapsedNanos) {
+                return elapsedNanos < MILLISECONDS.toNanos(100) ? 20 : 0;
+            }
+        }, 6, 10L, statistics);
+
+        assertThat(results.size()).isEqualTo(2);
+        assertThat(statistics.getStarted()).isEqualTo(2);
+    }
+
+    @Test
+    public void arrivalRate_startsIterations_regardlessOfIterationDuration() throws Exception {
+        RxArrivalRate.Statistics statistics = new RxArrivalRate.Statistics();
+        long iterationTime = 200L;
+
+        // vUser per Data Record, so no start depends on how fast finished vUser is released
+        ResultStore results = runArrivalRate(RxArrivalRate.constant(50, SECONDS), 6, iterationTime, statistics);
+
+        assertThat(results.size()).isEqualTo(6);
+        assertThat(statistics.getStarted()).isEqualTo(6);
+        assertThat(statistics.getDropped()).isEqualTo(0);
+
+        long firstStart = Long.MAX_VALUE;
+        long lastStart = 0;
+        for (int i = 0; i < results.size(); i++) {
+            firstStart = Math.min(firstStart, results.startTime(i));
+            lastStart = Math.max(lastStart, results.startTime(i));
+        }
+        assertThat(lastStart - firstStart).isLessThan(iterationTime);
+    }
+
+    @Test
+    public void arrivalRate_dropsIterations_whenAllVUsersAreBusy() throws Exception {
+        RxArrivalRate.Statistics statistics = new RxArrivalRate.Statistics();
+
+        ResultStore results = runArrivalRate(RxArrivalRate.constant(50, SECONDS), 2, 300L, statistics);
+
+        assertThat(results.size()).isEqualTo(6);
+        assertThat(statistics.getStarted()).isEqualTo(6);
+        assertThat(statistics.getDropped()).isGreaterThan(0);
+    }
+
+    private ResultStore runArrivalRate(RxArrivalRate.Profile profile, int vUsers, final long iterationTime,
+            RxArrivalRate.Statistics statistics) {
+        Flow flow = new PerformanceFlowBuilder("test").addTestStep(runnable(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sleep(iterationTime);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        })).withVUsers(vUsers).withDataSources(fromIterable("name", asList(1, 2, 3, 4, 5, 6)).shared()).build();
+
+        return Implementation.runFlowArrivalRate(performanceContext(flow, new WorkerPool()), profile, statistics);
+    }
+
+    @Test
+    public void rampUp_delayedVUsers_doNotOccupyWorkerThreads() throws Exception {
+        final ConcurrentHashMap<String, Long> startTimes = new ConcurrentHashMap<>();
+        final Stopwatch timer = Stopwatch.createUnstarted();
+
+        Flow flow = new PerformanceFlowBuilder("test").addTestStep(new ScenarioTest.InlineInvocation() {
+            public void step1(@Named("name") Integer i) throws Exception {
+                startTimes.put("step1-" + i, timer.elapsed(MILLISECONDS));
+                sleep(10L);
+            }
+        }).addTestStep(new ScenarioTest.InlineInvocation() {
+            public void step2(@Named("name") Integer i) throws Exception {
+                startTimes.put("step2-" + i, timer.elapsed(MILLISECONDS));
+            }
+        }).withVUsers(3).withDataSources(fromIterable("name", asList(1, 2, 3)).shared()).build();
+
+        WorkerPool workerPool = new WorkerPool(1, 1, MINUTES);
+        RxRampUp.Statistics statistics = new RxRampUp.Statistics();
+
+        timer.start();
+        Implementation.runFlowPerformance(performanceContext(flow, workerPool), RxRampUp.during(600, MILLISECONDS), statistics);
+
+        assertThat(startTimes.get("step1-2")).isGreaterThanOrEqualTo(200);
+        assertThat(startTimes.get("step1-3")).isGreaterThanOrEqualTo(400);
+        assertThat(startTimes.get("step2-3") - startTimes.get("step1-3")).isLessThan(200);
+        assertThat(statistics.getDelayedStarts()).isEqualTo(2);
+        assertThat(workerPool.getLargestPoolSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void rampUp_lateStart_isIncludedInResponseTime() throws Exception {
+        Flow flow = new PerformanceFlowBuilder("test").addTestStep(new ScenarioTest.InlineInvocation() {
+            public void step(@Named("name") Integer i) throws Exception {
+                sleep(300L);
+            }
+        }).withVUsers(2).withDataSources(fromIterable("name", asList(1, 2)).shared()).build();
+
+        WorkerPool singleThread = new WorkerPool(Executors.newSingleThreadExecutor());
+        ResultStore results = Implementation.runFlowPerformance(performanceContext(flow, singleThread), RxRampUp.during(200, MILLISECONDS),
+                new RxRampUp.Statistics());
+
+        assertThat(results.size()).isEqualTo(2);
+        assertThat(results.responseTime(0)).isEqualTo(results.duration(0));
+        assertThat(results.responseTime(1) - results.duration(1)).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void sharedDataSource_eachDataRecordIsUsedOnce() throws Exception {
+        final int count = 1000;
+        final HashMultiset<Integer> dataRecords = HashMultiset.create();
+        Flow flow = new PerformanceFlowBuilder("test").addTestStep(new ScenarioTest.InlineInvocation() {
+            public void step(@Named("name") Integer i) throws Exception {
+                synchronized (dataRecords) {
+                    dataRecords.add(i);
+                }
+            }
+        }).withVUsers(16).withDataSources(fromIterable("name", numbers(count)).shared()).build();
+
+        ResultStore results = Implementation.runFlowPerformance(performanceContext(flow, new WorkerPool()), RxRampUp.allAtOnce(),
+                new RxRampUp.Statistics());
+
+        assertThat(results.size()).isEqualTo(count);
+        assertThat(dataRecords.size()).isEqualTo(count);
+        assertThat(dataRecords.elementSet()).hasSize(count);
+    }
+
+    /**
+     * Compares throughput of flow with shared Data Source, which vUsers claim themselves, and the same Data Source
+     * streamed through RxJava pipeline, for 8..512 vUsers
+     */
+    @Test
+    @Ignore("benchmark")
+    public void benchmark_sharedDataRecords() throws Exception {
+        int iterations = 200_000;
+        List<RxScenarioListener> noListeners = Collections.emptyList();
+        for (int vUsers : asList(8, 32, 128, 512, 8, 32, 128, 512)) {
+            for (boolean streaming : asList(false, true)) {
+                DataSource<Integer> dataSource = fromIterable("name", numbers(iterations)).shared();
+                Flow flow = new PerformanceFlowBuilder("benchmark").addTestStep(runnable(new Runnable() {
+                    @Override
+                    public void run() {
+                    }
+                })).withVUsers(vUsers).withDataSources(streaming ? dataSource.streaming() : dataSource).build();
+
+                long start = System.nanoTime();
+                Implementation.runFlowPerformance(performanceContext(flow, new WorkerPool(), new ScenarioEventBus(noListeners)), RxRampUp.allAtOnce(),
+                        new RxRampUp.Statistics());
+                System.out.println(vUsers + " vUsers, " + (streaming ? "pipeline: " : "claimed: ") + (System.nanoTime() - start) / iterations
+                        + " ns per iteration");
+            }
+        }
+    }
+
+    /**
+     * Compares time to run blocking Test Step by many vUsers on platform and virtual threads. Virtual threads are
+     * measured only on JDK 21+
+     */
+    @Test
+    @Ignore("benchmark")
+    public void benchmark_platformVsVirtualThreads() throws Exception {
+        for (int vUsers : asList(1000, 10000, 50000)) {
+            System.out.println(vUsers + " vUsers, platform threads: " + runBlockingVUsers(new WorkerPool(), vUsers) + " ms");
+            try {
+                System.out.println(vUsers + " vUsers, virtual threads: " + runBlockingVUsers(WorkerPool.virtualThreads(), vUsers) + " ms");
+            } catch (UnsupportedOperationException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Measures per Test Step cost of event dispatch with 0, 1 and 5 listeners of Test Step events
+     */
+    @Test
+    @Ignore("benchmark")
+    public void benchmark_eventDispatch() throws Exception {
+        int iterations = 200_000;
+        for (int listeners : asList(0, 1, 5, 0, 1, 5)) {
+            List<RxScenarioListener> subscribed = newArrayList();
+            for (int i = 0; i < listeners; i++) {
+                subscribed.add(new ScenarioListener() {
+                    @Override
+                    public void onTestStepFinished(TestStepEvent.TestStepFinishedEvent event) {
+                    }
+                });
+            }
+            Flow flow = new PerformanceFlowBuilder("benchmark").addTestStep(runnable(new Runnable() {
+                @Override
+                public void run() {
+                }
+            })).withDataSources(fromIterable("name", numbers(iterations))).build();
+
+            long start = System.nanoTime();
+            Implementation.runFlowPerformance(performanceContext(flow, new WorkerPool(), new ScenarioEventBus(subscribed)), RxRampUp.allAtOnce(),
+                    new RxRampUp.Statistics());
+            System.out.println(listeners + " listeners: " + (System.nanoTime() - start) / iterations + " ns per Test Step");
+        }
+    }
+
+    private long runBlockingVUsers(WorkerPool workerPool, int vUsers) {
+        Flow flow = new PerformanceFlowBuilder("benchmark").addTestStep(runnable(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sleep(100L);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        })).withVUsers(vUsers).withDataSources(fromIterable("name", numbers(vUsers)).shared()).build();
+
+        Stopwatch timer = Stopwatch.createStarted();
+        Implementation.runFlowPerformance(performanceContext(flow, workerPool), RxRampUp.allAtOnce(), new RxRampUp.Statistics());
+        return timer.elapsed(MILLISECONDS);
+    }
+
+    private FlowExecutionContext performanceContext(Flow flow, WorkerPool workerPool) {
+        return performanceContext(flow, workerPool, mock(ScenarioEventBus.class));
+    }
+
+    private FlowExecutionContext performanceContext(Flow flow, WorkerPool workerPool, ScenarioEventBus eventBus) {
+        Scenario scenario = new Scenario(flow.getName(), Maps.<String, Object>newHashMap(), flow, Collections.<RxScenarioListener>emptyList());
+        return FlowExecutionContext.createScenarioFlowContext(scenario, eventBus, workerPool, ExceptionHandler.PROPAGATE);
+    }
 }
@@ -0,0 +1,49 @@
+package com.ericsson.de.scenarios.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.ericsson.de.scenarios.api.TestStep.Status.FAILED;
+import static com.ericsson.de.scenarios.api.TestStep.Status.SKIPPED;
+import static com.ericsson.de.scenarios.api.TestStep.Status.SUCCESS;
+
+import org.junit.Test;
+
+public class ResultStoreTest {
+
+    @Test
+    public void add_internsTestStepNames() throws Exception {
+        ResultStore store = new ResultStore();
+        store.add("step1", 0, 10_000_000, 10_000_000, SUCCESS);
+        store.add("step2", 5, 10_000_000, 10_000_000, FAILED);
+        store.add("step1", 10, 20_000_123, 25_000_000, SKIPPED);
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.stepCount()).isEqualTo(2);
+        assertThat(store.stepName(store.step(0))).isEqualTo("step1");
+        assertThat(store.stepName(store.step(1))).isEqualTo("step2");
+        assertThat(store.step(2)).isEqualTo(store.step(0));
+
+        assertThat(store.startTime(2)).isEqualTo(10);
+        assertThat(store.endTime(2)).isEqualTo(30);
+        assertThat(store.duration(2)).isEqualTo(20_000_123);
+        assertThat(store.responseTime(2)).isEqualTo(25_000_000);
+        assertThat(store.status(1)).isEqualTo(FAILED);
+        assertThat(store.isFailed(1)).isTrue();
+        assertThat(store.isFailed(2)).isFalse();
+    }
+
+    @Test
+    public void add_acrossChunks() throws Exception {
+        ResultStore store = new ResultStore();
+        int count = ResultStore.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            store.add("step" + i % 3, i, 1_000_000, 1_000_000, SUCCESS);
+        }
+
+        assertThat(store.size()).isEqualTo(count);
+        assertThat(store.stepCount()).isEqualTo(3);
+        assertThat(store.startTime(ResultStore.CHUNK_SIZE)).isEqualTo(ResultStore.CHUNK_SIZE);
+        assertThat(store.endTime(count - 1)).isEqualTo(count);
+        assertThat(store.stepName(store.step(count - 1))).isEqualTo("step" + (count - 1) % 3);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ericsson.de.scenarios.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class RingBufferTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void offer_returnsFalse_whenFull() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        assertThat(buffer.offer(1)).isTrue();
+        assertThat(buffer.offer(2)).isTrue();
+        assertThat(buffer.offer(3)).isFalse();
+        assertThat(buffer.size()).isEqualTo(2);
+
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.offer(3)).isTrue();
+        assertThat(buffer.poll()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo(3);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void capacity_shouldBePowerOfTwo() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(RingBuffer.ERROR_CAPACITY);
+
+        new RingBuffer<>(3);
+    }
+
+    @Test
+    public void concurrentProducers_allElementsAreDelivered() throws Exception {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+        }
+        start.countDown();
+
+        long sum = 0;
+        for (int received = 0; received < producers * perProducer; ) {
+            Integer element = buffer.poll();
+            if (element != null) {
+                sum += element;
+                received++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(sum).isEqualTo((long) producers * perProducer * (perProducer - 1) / 2);
+        assertThat(buffer.poll()).isNull();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ericsson.de.scenarios.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ericsson.de.scenarios.api.Api;
+import com.ericsson.de.scenarios.api.Scenario;
+import com.ericsson.de.scenarios.api.ScenarioListener;
+import com.ericsson.de.scenarios.api.ScenarioRunner;
+import com.ericsson.de.scenarios.api.events.ScenarioEvent;
+import com.ericsson.de.scenarios.api.events.TestStepEvent;
+
+public class RxAsyncListenerTest {
+
+    @Test
+    public void block_deliversAllEvents_beforeScenarioRunReturns() throws Exception {
+        CountingListener listener = new CountingListener(5);
+
+        Api.runner().addListener(listener, RxAsyncListener.Backpressure.BLOCK).build().run(scenario(10));
+
+        assertThat(listener.testStepEvents.get()).isEqualTo(20);
+        assertThat(listener.scenarioFinished.get()).isEqualTo(1);
+        assertThat(listener.threads).hasSize(1);
+        assertThat(listener.threads.iterator().next()).startsWith("scenario-listener-");
+    }
+
+    @Test
+    public void drop_testStepEvents_whenListenerCantKeepUp() throws Exception {
+        CountingListener listener = new CountingListener(200);
+        RxAsyncListener asyncListener = new RxAsyncListener(listener, RxAsyncListener.Backpressure.DROP, 4);
+
+        Api.runner().addListener(asyncListener).build().run(scenario(20));
+
+        assertThat(asyncListener.getDropped()).isGreaterThan(0);
+        assertThat(listener.testStepEvents.get() + asyncListener.getDropped()).isEqualTo(40);
+        assertThat(listener.scenarioFinished.get()).isEqualTo(1);
+        assertThat(asyncListener.getQueueDepth()).isEqualTo(0);
+        asyncListener.close();
+    }
+
+    @Test(timeout = 10000L)
+    public void deliveryThread_stopsAfterScenario_andStartsForNextOne() throws Exception {
+        CountingListener listener = new CountingListener(0);
+        RxAsyncListener asyncListener = new RxAsyncListener(listener, RxAsyncListener.Backpressure.BLOCK);
+        ScenarioRunner runner = Api.runner().addListener(asyncListener).build();
+
+        runner.run(scenario(5));
+        awaitStopped(asyncListener);
+        runner.run(scenario(5));
+        awaitStopped(asyncListener);
+
+        assertThat(listener.testStepEvents.get()).isEqualTo(20);
+        assertThat(listener.scenarioFinished.get()).isEqualTo(2);
+    }
+
+    @Test(timeout = 10000L)
+    public void closed_dropsEvents_insteadOfBlocking() throws Exception {
+        CountingListener listener = new CountingListener(0);
+        RxAsyncListener asyncListener = new RxAsyncListener(listener, RxAsyncListener.Backpressure.BLOCK, 4);
+        asyncListener.close();
+
+        Api.runner().addListener(asyncListener).build().run(scenario(20));
+
+        assertThat(listener.testStepEvents.get()).isEqualTo(0);
+        assertThat(asyncListener.getDropped()).isGreaterThanOrEqualTo(40);
+        assertThat(asyncListener.isDelivering()).isFalse();
+    }
+
+    private static void awaitStopped(RxAsyncListener listener) throws InterruptedException {
+        while (listener.isDelivering()) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Scenario scenario(int records) {
+        List<Integer> numbers = newArrayList();
+        for (int i = 0; i < records; i++) {
+            numbers.add(i);
+        }
+        return Api.scenario("scenario").addFlow(Api.flow("flow").addTestStep(ScenarioTest.named("step")).withDataSources(fromIterable("numbers",
+                numbers))).build();
+    }
+
+    /**
+     * Sleeps on first Test Step event to simulate slow listener
+     */
+    public static class CountingListener extends ScenarioListener {
+        final AtomicInteger testStepEvents = new AtomicInteger();
+        final AtomicInteger scenarioFinished = new AtomicInteger();
+        final Set<String> threads = new CopyOnWriteArraySet<>();
+        private final long delayMillis;
+
+        CountingListener(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void onTestStepStarted(TestStepEvent.TestStepStartedEvent event) {
+            onTestStepEvent();
+        }
+
+        @Override
+        public void onTestStepFinished(TestStepEvent.TestStepFinishedEvent event) {
+            onTestStepEvent();
+        }
+
+        @Override
+        public void onScenarioFinished(ScenarioEvent.ScenarioFinishedEvent event) {
+            scenarioFinished.incrementAndGet();
+        }
+
+        private void onTestStepEvent() {
+            threads.add(Thread.currentThread().getName());
+            if (testStepEvents.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ericsson.de.scenarios.impl;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ericsson.de.scenarios.api.Api;
+import com.ericsson.de.scenarios.api.Scenario;
+
+public class RxPerformanceListenerTest {
+
+    private GraphiteStandIn graphite;
+    private RxPerformanceListener listener;
+
+    @After
+    public void tearDown() throws Exception {
+        if (listener != null) {
+            listener.close();
+        }
+        if (graphite != null) {
+            graphite.close();
+        }
+    }
+
+    @Test
+    public void aggregatesSamples_overPersistentConnection() throws Exception {
+        graphite = new GraphiteStandIn(new ServerSocket(0));
+        listener = new RxPerformanceListener("localhost", graphite.getPort(), 1, MINUTES, 100);
+
+        run(scenario(3));
+        run(scenario(2));
+
+        List<String> lines = graphite.take(14);
+        assertThat(lines.get(0)).startsWith(RxPerformanceListener.PREFIX + "step.count 3 ");
+        assertThat(lines.get(1)).startsWith(RxPerformanceListener.PREFIX + "step.errors 0 ");
+        assertThat(lines.get(4)).startsWith(RxPerformanceListener.PREFIX + "step.p90 ");
+        assertThat(lines.get(7)).startsWith(RxPerformanceListener.PREFIX + "step.count 2 ");
+        assertThat(graphite.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconnects_whenGraphiteBecomesAvailable() throws Exception {
+        ServerSocket unavailable = new ServerSocket(0);
+        int port = unavailable.getLocalPort();
+        unavailable.close();
+        listener = new RxPerformanceListener("localhost", port, 1, MINUTES, 100);
+
+        run(scenario(1));
+
+        graphite = new GraphiteStandIn(new ServerSocket(port));
+        run(scenario(2));
+
+        assertThat(graphite.take(1).get(0)).startsWith(RxPerformanceListener.PREFIX + "step.count 2 ");
+    }
+
+    @Test
+    public void dropsSamples_whenQueueIsFull() throws Exception {
+        graphite = new GraphiteStandIn(new ServerSocket(0));
+        listener = new RxPerformanceListener("localhost", graphite.getPort(), 1, MINUTES, 2);
+
+        run(scenario(5));
+
+        assertThat(graphite.take(1).get(0)).startsWith(RxPerformanceListener.PREFIX + "step.count 2 ");
+        assertThat(listener.getDropped()).isEqualTo(3);
+    }
+
+    private Scenario scenario(int records) {
+        List<Integer> numbers = newArrayList();
+        for (int i = 0; i < records; i++) {
+            numbers.add(i);
+        }
+        return Api.scenario("scenario").addFlow(Api.flow("flow").addTestStep(ScenarioTest.named("step")).withDataSources(fromIterable("numbers",
+                numbers))).build();
+    }
+
+    private void run(Scenario scenario) {
+        Api.runner().addListener(listener).build().run(scenario);
+    }
+
+    /**
+     * Accepts connections and collects received lines
+     */
+    private static class GraphiteStandIn extends Thread {
+        private final ServerSocket server;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private final AtomicInteger connections = new AtomicInteger();
+
+        GraphiteStandIn(ServerSocket server) {
+            this.server = server;
+            setDaemon(true);
+            start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                }
+            } catch (IOException ignored) {
+                // server closed
+            }
+        }
+
+        int getPort() {
+            return server.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        List<String> take(int count) throws InterruptedException {
+            List<String> result = newArrayList();
+            for (int i = 0; i < count; i++) {
+                String line = lines.poll(5, SECONDS);
+                assertThat(line).as("line %s", i).isNotNull();
+                result.add(line);
+            }
+            return result;
+        }
+
+        void close() throws IOException {
+            server.close();
+        }
+    }
+}
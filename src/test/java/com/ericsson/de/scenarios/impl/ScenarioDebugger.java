@@ -37,7 +37,7 @@ public class ScenarioDebugger extends RxScenarioRunner {
 
     private ScenarioExecutionGraph doDebug(RxScenario scenario) {
         ScenarioEventBus eventBus = mock(ScenarioEventBus.class);
-        FlowExecutionContext context = createScenarioFlowContext(scenario, eventBus, ExceptionHandler.PROPAGATE);
+        FlowExecutionContext context = createScenarioFlowContext(scenario, eventBus, workerPool, ExceptionHandler.PROPAGATE);
         List<FlowExecutionResult> results = runFlow(context).toList().toBlocking().single();
 
         for (FlowExecutionResult result : results) {
@@ -0,0 +1,142 @@
+package com.ericsson.de.scenarios.impl;
+
+import static java.util.Arrays.asList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.ericsson.de.scenarios.impl.ScenarioTest.numbers;
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+
+public class SharedDataRecordsTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void next_returnsNull_whenExhausted() throws Exception {
+        SharedDataRecords<String> dataRecords = new SharedDataRecords<>(asList("a", "b"), false);
+
+        assertThat(dataRecords.next()).isEqualTo("a");
+        assertThat(dataRecords.next()).isEqualTo("b");
+        assertThat(dataRecords.next()).isNull();
+        assertThat(dataRecords.next()).isNull();
+        assertThat(dataRecords.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void next_wrapsAround() throws Exception {
+        SharedDataRecords<String> dataRecords = new SharedDataRecords<>(asList("a", "b"), true);
+
+        assertThat(asList(dataRecords.next(), dataRecords.next(), dataRecords.next(), dataRecords.next(), dataRecords.next()))
+                .containsExactly("a", "b", "a", "b", "a");
+        assertThat(dataRecords.claimed()).isEqualTo(5);
+    }
+
+    @Test
+    public void dataRecords_shouldNotBeEmpty() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(SharedDataRecords.ERROR_EMPTY);
+
+        new SharedDataRecords<>(Collections.emptyList(), true);
+    }
+
+    @Test
+    public void concurrentVUsers_eachDataRecordIsClaimedOnce() throws Exception {
+        final int count = 100_000;
+        final SharedDataRecords<Integer> dataRecords = new SharedDataRecords<>(newArrayList(numbers(count)), false);
+        final Multiset<Integer> claimed = ConcurrentHashMultiset.create();
+
+        runConcurrently(16, new Runnable() {
+            @Override
+            public void run() {
+                Integer dataRecord;
+                while ((dataRecord = dataRecords.next()) != null) {
+                    claimed.add(dataRecord);
+                }
+            }
+        });
+
+        assertThat(claimed.size()).isEqualTo(count);
+        assertThat(claimed.elementSet()).hasSize(count);
+    }
+
+    /**
+     * Compares time to hand out Data Records to 8..512 concurrent vUsers by {@link SharedDataRecords} and by
+     * synchronized iterator, which is how emission through single RxJava pipeline serializes vUsers
+     */
+    @Test
+    @Ignore("benchmark")
+    public void benchmark_contention() throws Exception {
+        final int count = 10_000_000;
+        final List<Integer> records = newArrayList(numbers(count));
+        for (int vUsers : asList(8, 32, 128, 512, 8, 32, 128, 512)) {
+            final SharedDataRecords<Integer> shared = new SharedDataRecords<>(records, false);
+            long start = System.nanoTime();
+            runConcurrently(vUsers, new Runnable() {
+                @Override
+                public void run() {
+                    while (shared.next() != null) {
+                        // claim only
+                    }
+                }
+            });
+            long lockFree = (System.nanoTime() - start) / count;
+
+            final Iterator<Integer> iterator = records.iterator();
+            start = System.nanoTime();
+            runConcurrently(vUsers, new Runnable() {
+                @Override
+                public void run() {
+                    while (true) {
+                        synchronized (iterator) {
+                            if (!iterator.hasNext()) {
+                                return;
+                            }
+                            iterator.next();
+                        }
+                    }
+                }
+            });
+            long synchronizedIterator = (System.nanoTime() - start) / count;
+
+            System.out.println(vUsers + " vUsers: lock-free " + lockFree + " ns, synchronized " + synchronizedIterator + " ns per Data Record");
+        }
+    }
+
+    private static void runConcurrently(int threads, final Runnable runnable) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    runnable.run();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+}
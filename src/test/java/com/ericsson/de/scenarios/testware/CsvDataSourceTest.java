@@ -1,10 +1,13 @@
 package com.ericsson.de.scenarios.testware;
 
+import static java.util.Arrays.asList;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static com.ericsson.de.scenarios.api.RxApiImpl.flow;
 import static com.ericsson.de.scenarios.api.RxApiImpl.scenario;
 import static com.ericsson.de.scenarios.impl.RxApi.fromCsv;
+import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
 
 import java.util.Stack;
 import javax.inject.Named;
@@ -12,6 +15,7 @@ import javax.inject.Named;
 import org.junit.Test;
 
 import com.ericsson.de.scenarios.api.DataRecord;
+import com.ericsson.de.scenarios.api.DataSource;
 import com.ericsson.de.scenarios.api.RxApiImpl;
 import com.ericsson.de.scenarios.api.Scenario;
 import com.ericsson.de.scenarios.impl.ScenarioTest;
@@ -22,6 +26,7 @@ public class CsvDataSourceTest extends ScenarioTest {
 
     @Test
     public void csvDataRecords() throws Exception {
+        STACK.clear();
         Scenario scenario = scenario().addFlow(flow().addTestStep(new InlineInvocation() {
             @SuppressWarnings("unused")
             public void testStep(@Named("username") String username) {
@@ -33,4 +38,46 @@ public class CsvDataSourceTest extends ScenarioTest {
 
         assertThat(STACK).containsExactly("John", "Mike");
     }
+
+    @Test
+    public void csvDataSource_isStreaming() throws Exception {
+        DataSource<DataRecord> csv = fromCsv("testDs", "csv/fromCsvTest.csv", DataRecord.class);
+
+        assertThat(csv.isStreaming()).isTrue();
+        assertThat(csv.shared().cyclic().isStreaming()).isTrue();
+        assertThat(csv.filterField("phone").contains("744").isStreaming()).isTrue();
+        assertThat(fromCsv("testDs", "csv/fromCsvTest.csv", DataRecord.class, 2).isStreaming()).isTrue();
+    }
+
+    @Test
+    public void csvDataRecords_readAgainForEachParentDataRecord() throws Exception {
+        STACK.clear();
+        Scenario scenario = scenario().addFlow(flow().addSubFlow(flow().addTestStep(new InlineInvocation() {
+            @SuppressWarnings("unused")
+            public void testStep(@Named("username") String username) {
+                STACK.push(username);
+            }
+        }).withDataSources(fromCsv("testDs", "csv/fromCsvTest.csv", DataRecord.class))).withDataSources(fromIterable("parent", asList(1, 2))))
+                .build();
+
+        RxApiImpl.run(scenario);
+
+        assertThat(STACK).containsExactly("John", "Mike", "John", "Mike");
+    }
+
+    @Test
+    public void csvDataRecords_filteredAndShared() throws Exception {
+        STACK.clear();
+        Scenario scenario = scenario().addFlow(flow().addTestStep(new InlineInvocation() {
+            @SuppressWarnings("unused")
+            public void testStep(@Named("username") String username) {
+                STACK.push(username);
+            }
+        }).withVUsers(2).withDataSources(fromCsv("testDs", "csv/fromCsvTest.csv.gz", DataRecord.class).filterField("phone").contains("744")
+                .shared())).build();
+
+        RxApiImpl.run(scenario);
+
+        assertThat(STACK).containsExactly("John");
+    }
 }
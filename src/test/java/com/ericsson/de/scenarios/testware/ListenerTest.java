@@ -1,5 +1,8 @@
 package com.ericsson.de.scenarios.testware;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
@@ -9,6 +12,7 @@ import static com.google.common.collect.Lists.newArrayList;
 import java.util.List;
 import java.util.Stack;
 
+import org.assertj.core.api.Assertions;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -22,7 +26,10 @@ import com.ericsson.de.scenarios.api.events.ScenarioEvent.ScenarioFinishedEvent;
 import com.ericsson.de.scenarios.api.events.ScenarioEvent.ScenarioStartedEvent;
 import com.ericsson.de.scenarios.api.events.TestStepEvent.TestStepFinishedEvent;
 import com.ericsson.de.scenarios.api.events.TestStepEvent.TestStepStartedEvent;
+import com.ericsson.de.scenarios.impl.RxResultSink;
+import com.ericsson.de.scenarios.impl.RxTestStepResult;
 import com.ericsson.de.scenarios.impl.ScenarioTest;
+import com.google.common.base.Throwables;
 
 public class ListenerTest {
 
@@ -129,6 +136,85 @@ public class ListenerTest {
                         "  RxFlow finished: bar", "RxScenario finished: foo");
     }
 
+    @Test
+    public void testStepFinished_reportsDuration() throws Exception {
+        Scenario scenario = Api.scenario("foo").addFlow(Api.flow("bar").addTestStep(ScenarioTest.named("fast")).addTestStep(
+                new ScenarioTest.InlineInvocation() {
+                    @SuppressWarnings("unused")
+                    void slow() throws Exception {
+                        Thread.sleep(20);
+                    }
+                })).build();
+
+        final List<TestStepFinishedEvent> events = newArrayList();
+        long beforeRun = System.currentTimeMillis();
+        Api.runner().addListener(new ScenarioListener() {
+            @Override
+            public void onTestStepFinished(TestStepFinishedEvent event) {
+                events.add(event);
+            }
+        }).build().run(scenario);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getDuration(NANOSECONDS)).isPositive();
+        assertThat(events.get(0).getStartTime()).isGreaterThanOrEqualTo(beforeRun);
+        assertThat(events.get(1).getDuration(MILLISECONDS)).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    public void resultSink_streamingResults() throws Exception {
+        List<Integer> numbers = newArrayList(1, 2, 3);
+        Scenario scenario = Api.scenario("foo").addFlow(Api.flow("bar").addTestStep(ScenarioTest.named("baz"))
+                .addSubFlow(Api.flow("qux").addTestStep(ScenarioTest.named("qux"))).withDataSources(fromIterable("numbers", numbers).shared())
+                .withVUsers(2)).build();
+
+        runner = Api.runner().addResultSink(new StackSink(stack)).withStreamingResults().build();
+        runner.run(scenario);
+
+        assertThat(stack).containsExactlyInAnyOrder("baz SUCCESS", "baz SUCCESS", "baz SUCCESS", "qux SUCCESS", "qux SUCCESS", "qux SUCCESS",
+                "finished");
+        assertThat(stack.peek()).isEqualTo("finished");
+    }
+
+    @Test
+    public void resultSink_streamingResults_exceptionIsPropagated() throws Exception {
+        Scenario scenario = Api.scenario("foo").addFlow(Api.flow("bar").addTestStep(new ScenarioTest.InlineInvocation() {
+            @SuppressWarnings("unused")
+            void fail() {
+                throw new ScenarioTest.VeryExpectedException();
+            }
+        })).build();
+
+        runner = Api.runner().addResultSink(new StackSink(stack)).withStreamingResults().build();
+        try {
+            runner.run(scenario);
+            Assertions.fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertThat(Throwables.getRootCause(e)).isInstanceOf(ScenarioTest.VeryExpectedException.class);
+        }
+
+        assertThat(stack).containsExactly("fail FAILED", "finished");
+    }
+
+    private static class StackSink implements RxResultSink {
+
+        private Stack<String> stack;
+
+        StackSink(Stack<String> stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public void onResult(RxTestStepResult result) {
+            stack.push(result.getName() + " " + result.getStatus());
+        }
+
+        @Override
+        public void onFinished() {
+            stack.push("finished");
+        }
+    }
+
     private static class StackListener extends ScenarioListener {
 
         private Stack<String> stack;
@@ -11,12 +11,14 @@ package com.ericsson.de.scenarios.testware;
  */
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 import static com.ericsson.de.scenarios.impl.RxApi.fromIterable;
 import static com.ericsson.de.scenarios.impl.RxApi.runnable;
 import static com.google.common.collect.Lists.newArrayList;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Named;
 
@@ -24,6 +26,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import com.ericsson.de.scenarios.api.Api;
+import com.ericsson.de.scenarios.api.AsyncTestStep;
 import com.ericsson.de.scenarios.api.DataRecordWrapper;
 import com.ericsson.de.scenarios.api.RxApiImpl;
 import com.ericsson.de.scenarios.api.Scenario;
@@ -35,6 +38,10 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+
+import rx.Observable;
+import rx.functions.Func1;
 
 public class ScenarioFlowTest extends ScenarioTest {
 
@@ -381,6 +388,194 @@ public class ScenarioFlowTest extends ScenarioTest {
         counter.assertEqualTo(8);
     }
 
+    @Test(timeout = 10000L)
+    public void continuousVUsers_slowDataRecord_doesNotHoldOtherVUsers() throws Exception {
+        final List<String> processed = new CopyOnWriteArrayList<>();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(new InlineInvocation() {
+            @SuppressWarnings("unused")
+            void process(@Named(DATA_SOURCE) String dataRecord) throws InterruptedException {
+                if ("slow".equals(dataRecord)) {
+                    Thread.sleep(1000);
+                }
+                processed.add(dataRecord);
+            }
+        }).withDataSources(fromIterable(DATA_SOURCE, newArrayList("slow", "a", "b", "c", "d")).shared()).withVUsers(2).withContinuousVUsers())
+                .build();
+
+        RxApiImpl.run(scenario);
+
+        assertThat(processed).containsExactly("a", "b", "c", "d", "slow");
+    }
+
+    @Test(timeout = 10000L)
+    public void continuousVUsers_withSubflows() throws Exception {
+        Counter flowCounter = new Counter();
+        Counter subFlowCounter = new Counter();
+        Counter beforeCounter = new Counter();
+        Counter afterCounter = new Counter();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().withBefore(beforeCounter).addTestStep(flowCounter)
+                .addSubFlow(Api.flow().addTestStep(subFlowCounter).withDataSources(fromIterable("subFlowDataSource", numbers(3))).withVUsers(2)
+                        .withContinuousVUsers()).withAfter(afterCounter)
+                .withDataSources(fromIterable(DATA_SOURCE, numbers(5)).shared()).withVUsers(2).withContinuousVUsers()).build();
+
+        RxApiImpl.run(scenario);
+
+        beforeCounter.assertEqualTo(1);
+        afterCounter.assertEqualTo(1);
+        flowCounter.assertEqualTo(5);
+        subFlowCounter.assertEqualTo(5 * 3 * 2);
+    }
+
+    @Test(timeout = 10000L)
+    public void continuousVUsers_exceptionIsPropagated() throws Exception {
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(new InlineInvocation() {
+            @SuppressWarnings("unused")
+            void throwOnThird(@Named(DATA_SOURCE) Integer dataRecord) {
+                if (dataRecord == 3) {
+                    throw new VeryExpectedException();
+                }
+            }
+        }).withDataSources(fromIterable(DATA_SOURCE, numbers(5)).shared()).withVUsers(2).withContinuousVUsers()).build();
+
+        try {
+            RxApiImpl.run(scenario);
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertThat(Throwables.getRootCause(e)).isInstanceOf(VeryExpectedException.class);
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void pipelinedSubflows_vUserStartsSubflow_withoutWaitingForOtherVUsers() throws Exception {
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(slowOn("slow", "step", processed))
+                .addSubFlow(Api.flow().addTestStep(slowOn("none", "subFlow", processed))).addTestStep(slowOn("none", "lastStep", processed))
+                .withDataSources(fromIterable(DATA_SOURCE, newArrayList("slow", "fast")).shared()).withVUsers(2).withPipelinedSubflows()).build();
+
+        RxApiImpl.run(scenario);
+
+        assertThat(processed).containsExactly("step-fast", "subFlow-fast", "lastStep-fast", "step-slow", "subFlow-slow", "lastStep-slow");
+    }
+
+    @Test(timeout = 10000L)
+    public void pipelinedSubflows_vUsersAreJoined_onSubflowWithBeforeStep() throws Exception {
+        List<String> processed = new CopyOnWriteArrayList<>();
+        Counter before = new Counter();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(slowOn("slow", "step", processed))
+                .addSubFlow(Api.flow().withBefore(before).addTestStep(slowOn("none", "subFlow", processed)))
+                .withDataSources(fromIterable(DATA_SOURCE, newArrayList("slow", "fast")).shared()).withVUsers(2).withPipelinedSubflows()).build();
+
+        RxApiImpl.run(scenario);
+
+        before.assertEqualTo(1);
+        assertThat(processed.subList(0, 2)).containsExactly("step-fast", "step-slow");
+        assertThat(processed.subList(2, 4)).containsOnly("subFlow-fast", "subFlow-slow");
+    }
+
+    @Test(timeout = 10000L)
+    public void pipelinedSubflows_vUsersAreJoined_onNestedSubflowWithSharedDataSource() throws Exception {
+        final List<Integer> processed = new CopyOnWriteArrayList<>();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(slowOn("slow", "step", new CopyOnWriteArrayList<String>()))
+                .addSubFlow(Api.flow().addSubFlow(Api.flow().addTestStep(new InlineInvocation() {
+                    @SuppressWarnings("unused")
+                    void process(@Named("nested") Integer dataRecord) {
+                        processed.add(dataRecord);
+                    }
+                }).withDataSources(fromIterable("nested", numbers(4)).shared()).withVUsers(2)))
+                .withDataSources(fromIterable(DATA_SOURCE, newArrayList("slow", "fast")).shared()).withVUsers(2).withPipelinedSubflows()).build();
+
+        RxApiImpl.run(scenario);
+
+        assertThat(processed).containsOnly(1, 2, 3, 4).hasSize(4);
+    }
+
+    @Test(timeout = 10000L)
+    public void asyncTestStep_releasesThread_andPassesResultToNextTestStep() throws Exception {
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        Counter counter = new Counter();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(new DelayedEcho("asyncStep", -1)).addTestStep(new InlineInvocation() {
+            @SuppressWarnings("unused")
+            void consumer(@Named(DATA_SOURCE) Integer fromDataSource, @Named("asyncStep") String fromAsyncStep) {
+                assertThat(fromAsyncStep).isEqualTo("echo" + fromDataSource);
+                threads.add(Thread.currentThread().getName());
+            }
+        }).addTestStep(counter).withVUsers(10).withDataSources(fromIterable(DATA_SOURCE, numbers(10)).shared())).build();
+
+        RxApiImpl.run(scenario);
+
+        counter.assertEqualTo(10);
+        assertThat(threads).hasSize(10);
+        for (String thread : threads) {
+            assertThat(thread).startsWith("scenario-worker");
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void asyncTestStep_exceptionIsPropagated() throws Exception {
+        Counter counter = new Counter();
+
+        Scenario scenario = Api.scenario().addFlow(Api.flow().addTestStep(new DelayedEcho("asyncStep", 2)).addTestStep(counter).withVUsers(3)
+                .withDataSources(fromIterable(DATA_SOURCE, numbers(3)).shared())).build();
+
+        try {
+            RxApiImpl.run(scenario);
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertThat(Throwables.getRootCause(e)).isInstanceOf(VeryExpectedException.class);
+        }
+        counter.assertEqualTo(2);
+    }
+
+    private static TestStep slowOn(final String slowDataRecord, final String label, final List<String> processed) {
+        return new InlineInvocation() {
+            @SuppressWarnings("unused")
+            void process(@Named(DATA_SOURCE) String dataRecord) throws InterruptedException {
+                if (slowDataRecord.equals(dataRecord)) {
+                    Thread.sleep(1000);
+                }
+                processed.add(label + "-" + dataRecord);
+            }
+        };
+    }
+
+    /**
+     * Returns "echo" + Data Record after delay on timer thread, fails for {@code failOn} Data Record
+     */
+    private static class DelayedEcho extends AsyncTestStep {
+
+        private final int failOn;
+
+        DelayedEcho(String name, int failOn) {
+            super(name);
+            this.failOn = failOn;
+        }
+
+        @Override
+        protected Observable<?> doRunAsync(DataRecordWrapper dataRecord) throws Exception {
+            final Integer value = dataRecord.getFieldValue(DATA_SOURCE, Integer.class).get();
+            return Observable.timer(200, TimeUnit.MILLISECONDS).flatMap(new Func1<Long, Observable<String>>() {
+                @Override
+                public Observable<String> call(Long tick) {
+                    if (value == failOn) {
+                        return Observable.error(new VeryExpectedException());
+                    }
+                    return Observable.just("echo" + value);
+                }
+            });
+        }
+
+        @Override
+        protected TestStep copySelf() {
+            return new DelayedEcho(name, failOn);
+        }
+    }
+
     private static class SimpleTestStepWithArguments extends TestStep {
 
         SimpleTestStepWithArguments(String name) {